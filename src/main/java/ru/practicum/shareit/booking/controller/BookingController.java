@@ -3,6 +3,7 @@ package ru.practicum.shareit.booking.controller;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -16,11 +17,16 @@ import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithId;
 import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPages;
+import ru.practicum.shareit.pagination.PageLimits;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
 import java.util.List;
+import java.util.Objects;
 
 @RestController
 @RequestMapping("/bookings")
@@ -53,25 +59,45 @@ public class BookingController {
         return bookingService.getBooking(userId, bookingId);
     }
 
+    /**
+     * Lists bookings of the user by state. Without {@code cursor} the listing is paged by {@code from}/{@code size};
+     * an empty {@code cursor} starts a cursor listing instead, and the value from the
+     * {@value CursorPages#NEXT_CURSOR_HEADER} header continues it. The header is absent on the last page.
+     */
     @GetMapping("")
-    public List<BookingDto> getBookingByState(@RequestHeader(USER_ID_HEADER) long userId,
-                                              @RequestParam(defaultValue = "ALL") String state,
-                                              @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                              @RequestParam(defaultValue = "10") @Positive Integer size) {
+    public ResponseEntity<List<BookingDto>> getBookingByState
+            (@RequestHeader(USER_ID_HEADER) long userId,
+             @RequestParam(defaultValue = "ALL") String state,
+             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+             @RequestParam(defaultValue = "10") @Positive @Max(PageLimits.MAX_SIZE) Integer size,
+             @RequestParam(required = false) String cursor) {
+        if (Objects.nonNull(cursor)) {
+            return CursorPages.toResponse(bookingService.getBookingByState(userId, state,
+                    CursorPages.decode(cursor), size), this::cursorOf);
+        }
         Pageable pageable = PageRequest.of(from / size, size,
                 Sort.by(Sort.Direction.DESC, BOOKING_DATE_FIELD_NAME));
 
-        return bookingService.getBookingByState(userId, state, pageable);
+        return ResponseEntity.ok(bookingService.getBookingByState(userId, state, pageable));
     }
 
     @GetMapping("/owner")
-    public List<BookingDto> getItemsByStateAndOwner
+    public ResponseEntity<List<BookingDto>> getItemsByStateAndOwner
             (@RequestHeader(USER_ID_HEADER) long userId,
              @RequestParam(defaultValue = "ALL") String state,
              @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-             @RequestParam(defaultValue = "10") @Positive Integer size) {
+             @RequestParam(defaultValue = "10") @Positive @Max(PageLimits.MAX_SIZE) Integer size,
+             @RequestParam(required = false) String cursor) {
+        if (Objects.nonNull(cursor)) {
+            return CursorPages.toResponse(bookingService.getBookingByStateAndOwner(userId, state,
+                    CursorPages.decode(cursor), size), this::cursorOf);
+        }
         Pageable pageable = PageRequest.of(from / size, size,
                 Sort.by(Sort.Direction.DESC, BOOKING_DATE_FIELD_NAME));
-        return bookingService.getBookingByStateAndOwner(userId, state, pageable);
+        return ResponseEntity.ok(bookingService.getBookingByStateAndOwner(userId, state, pageable));
+    }
+
+    private Cursor cursorOf(BookingDto booking) {
+        return new Cursor(booking.getStart(), booking.getId());
     }
-}
\ No newline at end of file
+}
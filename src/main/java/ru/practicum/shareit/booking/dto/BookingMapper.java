@@ -4,6 +4,9 @@ import lombok.AllArgsConstructor;
 import org.springframework.stereotype.Component;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingView;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.user.dto.UserDto;
 
 @Component
 @AllArgsConstructor
@@ -29,4 +32,33 @@ public class BookingMapper {
                 .status(booking.getStatus())
                 .build();
     }
+
+    public BookingDto fromView(BookingView booking) {
+        UserDto owner = UserDto.builder()
+                .id(booking.getOwnerId())
+                .name(booking.getOwnerName())
+                .email(booking.getOwnerEmail())
+                .build();
+        ItemDto item = ItemDto.builder()
+                .id(booking.getItemId())
+                .name(booking.getItemName())
+                .description(booking.getItemDescription())
+                .available(booking.getItemAvailable())
+                .requestId(booking.getItemRequestId())
+                .owner(owner)
+                .build();
+        UserDto booker = UserDto.builder()
+                .id(booking.getBookerId())
+                .name(booking.getBookerName())
+                .email(booking.getBookerEmail())
+                .build();
+        return BookingDto.builder()
+                .id(booking.getId())
+                .start(booking.getStart())
+                .end(booking.getEnd())
+                .status(booking.getStatus())
+                .item(item)
+                .booker(booker)
+                .build();
+    }
 }
@@ -0,0 +1,22 @@
+package ru.practicum.shareit.booking.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+
+/**
+ * A booking was created or changed its status. Caches over bookings subscribe to it and apply the change after
+ * the transaction that made it commits.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class BookingChanged {
+
+    private final Booking booking;
+
+    public Long getItemId() {
+        return booking.getItem().getId();
+    }
+}
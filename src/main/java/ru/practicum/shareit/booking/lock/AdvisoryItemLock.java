@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * PostgreSQL item lock: the action runs in a transaction holding a transaction-level advisory lock on the
+ * item id, so it also serializes with other application instances. The lock is released on commit or
+ * rollback; acquisitions that had to wait are counted in "shareit.item.lock.contention".
+ */
+@Slf4j
+@Component
+@Profile("postgres")
+@RequiredArgsConstructor
+public class AdvisoryItemLock implements ItemLock, MeterBinder {
+
+    private final EntityManager entityManager;
+
+    private final AtomicLong contention = new AtomicLong();
+
+    @Override
+    @Transactional
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        Object acquired = entityManager.createNativeQuery("select pg_try_advisory_xact_lock(:itemId)")
+                .setParameter("itemId", itemId)
+                .getSingleResult();
+        if (!Boolean.TRUE.equals(acquired)) {
+            contention.incrementAndGet();
+            log.debug("Waiting for advisory lock of item {}", itemId);
+            entityManager.createNativeQuery("select count(*) from pg_advisory_xact_lock(:itemId)")
+                    .setParameter("itemId", itemId)
+                    .getSingleResult();
+        }
+        return action.get();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("shareit.item.lock.contention", contention, AtomicLong::get)
+                .tag("stripe", "advisory")
+                .description("Item lock acquisitions that had to wait")
+                .register(registry);
+    }
+}
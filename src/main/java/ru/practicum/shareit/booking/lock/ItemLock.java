@@ -0,0 +1,12 @@
+package ru.practicum.shareit.booking.lock;
+
+import java.util.function.Supplier;
+
+/**
+ * Serializes booking operations on one item: actions for the same item id run one at a time,
+ * actions for different items may run in parallel.
+ */
+public interface ItemLock {
+
+    <T> T withLock(Long itemId, Supplier<T> action);
+}
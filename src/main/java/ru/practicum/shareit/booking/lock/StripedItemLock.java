@@ -0,0 +1,68 @@
+package ru.practicum.shareit.booking.lock;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * In-JVM item lock: item ids are spread over a power-of-two number of reentrant locks. Every acquisition
+ * that has to wait for its stripe is counted in "shareit.item.lock.contention" tagged with the stripe.
+ */
+@Slf4j
+@Component
+@Profile("!postgres")
+public class StripedItemLock implements ItemLock, MeterBinder {
+
+    private final ReentrantLock[] stripes;
+
+    private final AtomicLongArray contention;
+
+    public StripedItemLock(@Value("${shareit.item.lock.stripes:64}") int stripes) {
+        int size = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            this.stripes[i] = new ReentrantLock();
+        }
+        this.contention = new AtomicLongArray(size);
+    }
+
+    @Override
+    public <T> T withLock(Long itemId, Supplier<T> action) {
+        int stripe = stripeOf(itemId);
+        ReentrantLock lock = stripes[stripe];
+        if (!lock.tryLock()) {
+            contention.incrementAndGet(stripe);
+            log.debug("Waiting for lock stripe {} of item {}", stripe, itemId);
+            lock.lock();
+        }
+        try {
+            return action.get();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        for (int i = 0; i < stripes.length; i++) {
+            int stripe = i;
+            FunctionCounter.builder("shareit.item.lock.contention", contention, counts -> counts.get(stripe))
+                    .tag("stripe", String.valueOf(stripe))
+                    .description("Item lock acquisitions that had to wait")
+                    .register(registry);
+        }
+    }
+
+    private int stripeOf(Long itemId) {
+        int hash = Long.hashCode(itemId);
+        return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+    }
+}
@@ -21,7 +21,11 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
+import javax.persistence.NamedSubgraph;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.time.LocalDateTime;
 
 @Entity
@@ -30,11 +34,21 @@ import java.time.LocalDateTime;
 @ToString
 @EqualsAndHashCode
 @Table(name = "bookings")
+@NamedEntityGraph(name = Booking.ITEM_AND_BOOKER_GRAPH,
+        attributeNodes = {
+                @NamedAttributeNode(value = "item", subgraph = "item-owner"),
+                @NamedAttributeNode("booker")},
+        subgraphs = @NamedSubgraph(name = "item-owner", attributeNodes = @NamedAttributeNode("owner")))
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder(toBuilder = true)
 public class Booking {
 
+    /**
+     * Everything BookingDto is built from: booking, booker, item and the item owner.
+     */
+    public static final String ITEM_AND_BOOKER_GRAPH = "Booking.itemAndBooker";
+
     @Id
     @Column(nullable = false, updatable = false)
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -50,6 +64,16 @@ public class Booking {
     @Enumerated(EnumType.STRING)
     private BookingStatus status;
 
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    /**
+     * Copy of the item owner id, so owner listings filter and sort on bookings alone.
+     */
+    @Column(name = "item_owner_id")
+    private Long itemOwnerId;
+
     @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     @JsonIgnore
@@ -2,23 +2,35 @@ package ru.practicum.shareit.booking.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithId;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingChanged;
+import ru.practicum.shareit.booking.lock.ItemLock;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingSearchType;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
 import ru.practicum.shareit.booking.storage.BookingSearch;
+import ru.practicum.shareit.booking.storage.BookingStatusView;
+import ru.practicum.shareit.booking.timeline.BookingSlot;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
@@ -34,6 +46,8 @@ import java.util.stream.Collectors;
 @RequiredArgsConstructor
 public class BookingService {
 
+    private static final String OVERLAP_MESSAGE = "Booking can't be made to one item more than one time";
+
     private final BookingRepository bookingRepository;
 
     private final UserRepository userRepository;
@@ -46,39 +60,60 @@ public class BookingService {
 
     private final UserMapper userMapper;
 
+    private final UserExistenceChecker userExistenceChecker;
+
+    private final BookingTimeline bookingTimeline;
+
+    private final ItemLock itemLock;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     public BookingDto save(BookingDtoWithId bookingDto, Long userId) {
         log.info("New request SAVE");
-        checkUserExists(userId);
-        Booking booking = toBookingWithItemAndBooker(bookingDto, userId);
-        checkBookingBasicConstraints(booking, userId);
-        booking.setStatus(BookingStatus.WAITING);
-        log.info("Bookings for user id: {} saved: {}", userId, booking);
-        return toDtoWithItemAndBooker(bookingRepository.save(booking));
+        User booker = findUser(userId);
+        if (Objects.isNull(bookingDto.getItemId())) {
+            throw new BadRequestException("Booking item should be not null");
+        }
+        return itemLock.withLock(bookingDto.getItemId(), () -> {
+            Booking booking = toBookingWithItemAndBooker(bookingDto, booker);
+            checkBookingBasicConstraints(booking, userId);
+            booking.setStatus(BookingStatus.WAITING);
+            log.info("Bookings for user id: {} saved: {}", userId, booking);
+            return toDtoWithItemAndBooker(saveChecked(booking));
+        });
     }
 
     public BookingDto changeBookingStatus(Long bookingId, Boolean isApproved, Long requesterId) {
         log.info("New request change booking status");
-        Booking booking = bookingRepository
-                .findById(bookingId)
+        BookingStatusView current = bookingRepository
+                .findStatusViewById(bookingId)
                 .orElseThrow(() -> new ItemDoesNotExistException("Booking with id " + bookingId + " not found"));
 
-        if (!Objects.equals(booking.getItem().getOwner().getId(), requesterId)) {
+        if (!Objects.equals(current.getOwnerId(), requesterId)) {
             throw new ItemDoesNotExistException("Booking status could be changed only by owner");
         }
         BookingStatus newStatus = Boolean.TRUE.equals(isApproved) ? BookingStatus.APPROVED : BookingStatus.REJECTED;
-        if (booking.getStatus().equals(newStatus)) {
+        if (current.getStatus().equals(newStatus)) {
             throw new BadRequestException("Booking status has already been changed");
         }
-        booking.setStatus(newStatus);
-        bookingRepository.save(booking);
-        log.info("Bookings  id: {} change status to: {}", bookingId, newStatus);
-        return toDtoWithItemAndBooker(booking);
+        return itemLock.withLock(current.getItemId(), () -> {
+            checkReactivationOverlap(current, newStatus);
+            if (updateStatusChecked(bookingId, current.getStatus(), newStatus) == 0) {
+                throw new ConflictException("Booking with id " + bookingId + " has been changed concurrently");
+            }
+            Booking booking = bookingRepository
+                    .findBookingById(bookingId)
+                    .orElseThrow(() -> new ItemDoesNotExistException("Booking with id " + bookingId + " not found"));
+            onBookingChanged(booking);
+            log.info("Bookings  id: {} change status to: {}", bookingId, newStatus);
+            return toDtoWithItemAndBooker(booking);
+        });
     }
 
     public BookingDto getBooking(Long requesterId, Long bookingId) {
         log.info("New request get booking");
         Booking booking = bookingRepository
-                .findById(bookingId)
+                .findBookingById(bookingId)
                 .orElseThrow(() -> new ItemDoesNotExistException("Booking with id " + bookingId + " not found"));
 
         checkItemOwner(booking, requesterId);
@@ -88,14 +123,14 @@ public class BookingService {
 
     public List<BookingDto> getBookingByState(Long ownerId, String state, Pageable pageable) {
         log.info("New request get booking by state");
-        checkUserExists(ownerId);
+        userExistenceChecker.checkUserExists(ownerId);
         checkState(state);
         BookingSearchType type = BookingSearchType.valueOf(state);
         BookingSearch bookingSearch = new BookingSearch(bookingRepository);
         List<BookingDto> bookingDtos = bookingSearch
                 .getBookings(ownerId, type, pageable)
                 .stream()
-                .map(this::toDtoWithItemAndBooker)
+                .map(bookingMapper::fromView)
                 .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
         log.info("Bookings for owner id: {} and state: {} returned collection: {}", ownerId, state, bookingDtos);
         return bookingDtos;
@@ -103,7 +138,7 @@ public class BookingService {
 
     public List<BookingDto> getBookingByStateAndOwner(Long ownerId, String state, Pageable pageable) {
         log.info("New request get booking by state and owner");
-        checkUserExists(ownerId);
+        userExistenceChecker.checkUserExists(ownerId);
         checkState(state);
         BookingSearchType type = BookingSearchType.valueOf(state);
         BookingSearch bookingSearch = new BookingSearch(bookingRepository);
@@ -111,18 +146,42 @@ public class BookingService {
         List<BookingDto> bookingDtos = bookingSearch
                 .getBookingsByItemsOwner(ownerId, type, pageable)
                 .stream()
-                .map(this::toDtoWithItemAndBooker)
+                .map(bookingMapper::fromView)
                 .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
         log.info("Bookings for owner id: {} and state: {} returned collection: {}", ownerId, state, bookingDtos);
         return bookingDtos;
     }
 
-    private Booking toBookingWithItemAndBooker(BookingDtoWithId bookingDto, Long userId) {
+    public Slice<BookingDto> getBookingByState(Long bookerId, String state, Cursor after, int size) {
+        log.info("New request get booking by state after cursor {}", after);
+        userExistenceChecker.checkUserExists(bookerId);
+        checkState(state);
+        BookingSearch bookingSearch = new BookingSearch(bookingRepository);
+        return bookingSearch
+                .getBookings(bookerId, BookingSearchType.valueOf(state), after, size)
+                .map(bookingMapper::fromView);
+    }
+
+    public Slice<BookingDto> getBookingByStateAndOwner(Long ownerId, String state, Cursor after, int size) {
+        log.info("New request get booking by state and owner after cursor {}", after);
+        userExistenceChecker.checkUserExists(ownerId);
+        checkState(state);
+        BookingSearch bookingSearch = new BookingSearch(bookingRepository);
+        return bookingSearch
+                .getBookingsByItemsOwner(ownerId, BookingSearchType.valueOf(state), after, size)
+                .map(bookingMapper::fromView);
+    }
+
+    /**
+     * Reads the item under the item lock, so the availability and owner checked are those the booking is
+     * saved against.
+     */
+    private Booking toBookingWithItemAndBooker(BookingDtoWithId bookingDto, User booker) {
         Booking booking = bookingMapper.toBooking(bookingDto);
-        Long itemId = bookingDto.getItemId();
-        checkItemExists(itemId);
-        booking.setItem(itemRepository.findById(itemId).get());
-        booking.setBooker(userRepository.findById(userId).get());
+        Item item = findItem(bookingDto.getItemId());
+        booking.setItem(item);
+        booking.setItemOwnerId(item.getOwner().getId());
+        booking.setBooker(booker);
         return booking;
     }
 
@@ -141,10 +200,7 @@ public class BookingService {
     }
 
     private void checkBookingBasicConstraints(Booking booking, Long requesterId) {
-        checkUserExists(requesterId);
-        Long itemId = booking.getItem().getId();
-        checkItemExists(itemId);
-        Item item = itemRepository.findById(itemId).get();
+        Item item = booking.getItem();
         if (Objects.equals(booking.getStart(), null)) {
             throw new BadRequestException("Booking start should be not null");
         }
@@ -167,27 +223,57 @@ public class BookingService {
             throw new BadRequestException("Booking can't be made to unavailable item");
         }
 
-        List<Booking> bookings = bookingRepository.searchByItemIdAndStartAddEnd(item.getId(),
-                booking.getStart(), booking.getEnd());
+        if (bookingTimeline.hasOverlap(item.getId(), start, end)) {
+            throw new BadRequestException(OVERLAP_MESSAGE);
+        }
+    }
 
-        if (bookings.stream().anyMatch(b -> b.getStatus().equals(BookingStatus.WAITING)
-                || b.getStatus().equals(BookingStatus.APPROVED))) {
-            throw new BadRequestException("Booking can't be made to one item more than one time");
+    /**
+     * A rejected booking leaves the timeline, so another booking may have taken its period since; approving it
+     * again must not make two active bookings overlap.
+     */
+    private void checkReactivationOverlap(BookingStatusView current, BookingStatus newStatus) {
+        if (!BookingSlot.ACTIVE_STATUSES.contains(current.getStatus())
+                && BookingSlot.ACTIVE_STATUSES.contains(newStatus)
+                && bookingTimeline.hasOverlap(current.getItemId(), current.getStart(), current.getEnd())) {
+            throw new BadRequestException(OVERLAP_MESSAGE);
         }
     }
 
-    private void checkUserExists(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ItemDoesNotExistException("User with id=" + id + " not exists.");
+    private Booking saveChecked(Booking booking) {
+        try {
+            Booking saved = bookingRepository.saveAndFlush(booking);
+            onBookingChanged(saved);
+            return saved;
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Booking {} rejected by the store: {}", booking, e.getMessage());
+            throw new BadRequestException(OVERLAP_MESSAGE);
         }
     }
 
-    private void checkItemExists(Long id) {
-        if (!itemRepository.existsById(id)) {
-            throw new ItemDoesNotExistException("Item with id=" + id + " not exists.");
+    private int updateStatusChecked(Long bookingId, BookingStatus expected, BookingStatus newStatus) {
+        try {
+            return bookingRepository.updateStatus(bookingId, expected, newStatus);
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Booking {} status change to {} rejected by the store: {}", bookingId, newStatus, e.getMessage());
+            throw new BadRequestException(OVERLAP_MESSAGE);
         }
     }
 
+    private void onBookingChanged(Booking booking) {
+        eventPublisher.publishEvent(new BookingChanged(booking));
+    }
+
+    private User findUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ItemDoesNotExistException("User with id=" + id + " not exists."));
+    }
+
+    private Item findItem(Long id) {
+        return itemRepository.findById(id)
+                .orElseThrow(() -> new ItemDoesNotExistException("Item with id=" + id + " not exists."));
+    }
+
     private void checkState(String state) {
         List<String> types = Arrays.stream(BookingSearchType.values())
                 .map(Enum::toString)
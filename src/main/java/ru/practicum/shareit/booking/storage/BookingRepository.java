@@ -1,65 +1,170 @@
 package ru.practicum.shareit.booking.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.lang.NonNull;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.timeline.BookingSlot;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemBookingSummaryDto;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRepository extends JpaRepository<Booking, Long> {
-    @Query("select b from Booking b where b.booker.id = :id and b.status = :status order by b.start DESC")
-    Page<Booking> searchByBookerAndStatus(@NonNull Long id, @NonNull BookingStatus status, Pageable pageable);
 
-    @Query("select b from Booking b where b.booker.id = :id order by b.start DESC")
-    Page<Booking> searchByBooker(@NonNull Long id, Pageable pageable);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and b.start < :date and b.end > :date order by b.start DESC")
-    Page<Booking> searchByBookerInPresentTime(Long bookerId, LocalDateTime date, Pageable pageable);
-
-    @Query("select b from Booking b where b.booker.id = :bookerId and b.end < :date order by b.start DESC")
-    Page<Booking> searchByBookerInPastTime(Long bookerId, LocalDateTime date, Pageable pageable);
+    /**
+     * Keyset predicate for the cursor listings: bookings strictly after (afterStart, afterId)
+     * in (start desc, id desc) order.
+     */
+    String AFTER_CURSOR = " and (b.start < :afterStart or (b.start = :afterStart and b.id < :afterId))"
+            + " order by b.start DESC, b.id DESC";
+
+    /**
+     * Listing rows: exactly the fields of BookingDto with its item, item owner and booker, in one joined select.
+     */
+    String BOOKING_VIEW = "select new ru.practicum.shareit.booking.storage.BookingView(b.id, b.start, b.end, "
+            + "b.status, i.id, i.name, i.description, i.available, i.requestId, o.id, o.name, o.email, "
+            + "u.id, u.name, u.email) from Booking b join b.item i join i.owner o join b.booker u ";
+
+    @EntityGraph(Booking.ITEM_AND_BOOKER_GRAPH)
+    Optional<Booking> findBookingById(Long id);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = :id and b.status = :status order by b.start DESC")
+    Slice<BookingView> searchByBookerAndStatus(@NonNull Long id, @NonNull BookingStatus status, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = :id order by b.start DESC")
+    Slice<BookingView> searchByBooker(@NonNull Long id, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = :bookerId and b.start < :date and b.end > :date order by b.start DESC")
+    Slice<BookingView> searchByBookerInPresentTime(Long bookerId, LocalDateTime date, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = :bookerId and b.end < :date order by b.start DESC")
+    Slice<BookingView> searchByBookerInPastTime(Long bookerId, LocalDateTime date, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.booker.id = :bookerId and b.start > :date order by b.start DESC")
+    Slice<BookingView> searchByBookerInFutureTime(Long bookerId, LocalDateTime date, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id order by b.start DESC")
+    Slice<BookingView> searchByItemOwner(@NonNull Long id, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.end < :date order by b.start DESC")
+    Slice<BookingView> searchByItemOwnerInPastTime(@NonNull Long id, LocalDateTime date, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.start > :date and b.end > :date  order by b.start DESC")
+    Slice<BookingView> searchBookingsByItemOwnerInFutureTime(@NonNull Long id, LocalDateTime date, Pageable pageable);
+
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.start < :date and b.end > :date  order by b.start DESC")
+    Slice<BookingView> searchByItemOwnerInPresentTime(@NonNull Long id, LocalDateTime date, Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.booking.storage.BookingStatusView(b.item.id, b.itemOwnerId, b.status, " +
+            "b.start, b.end) from Booking b where b.id = :bookingId")
+    Optional<BookingStatusView> findStatusViewById(@NonNull Long bookingId);
+
+    @Transactional
+    @Modifying(clearAutomatically = true)
+    @Query("update Booking b set b.status = :newStatus, b.version = b.version + 1 " +
+            "where b.id = :bookingId and b.status = :expected")
+    int updateStatus(@NonNull Long bookingId, BookingStatus expected, BookingStatus newStatus);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b where b.item.id = :itemId " +
+            "and b.status in :statuses and b.start < :end and b.end > :start")
+    boolean existsByItemIdAndStatusInAndStartBeforeAndEndAfter(@NonNull Long itemId,
+                                                               Collection<BookingStatus> statuses,
+                                                               LocalDateTime end, LocalDateTime start);
+
+    @Query("select new ru.practicum.shareit.booking.timeline.BookingSlot(b.item.id, b.id, b.booker.id, " +
+            "b.start, b.end, b.status) from Booking b where b.item.id in :itemIds and b.status in :statuses")
+    List<BookingSlot> searchSlotsForItems(@NonNull Collection<Long> itemIds, Collection<BookingStatus> statuses);
+
+    @Query("select new ru.practicum.shareit.booking.timeline.BookingSlot(b.item.id, b.id, b.booker.id, " +
+            "b.start, b.end, b.status) from Booking b where b.item.id = :itemId and b.status in :statuses " +
+            "and b.start < :to and b.end > :from order by b.start")
+    List<BookingSlot> searchSlotsForItemBetween(@NonNull Long itemId, Collection<BookingStatus> statuses,
+                                                LocalDateTime from, LocalDateTime to);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(b.id, b.booker.id) from Booking b " +
+            "where b.item.id = :itemId and b.start < :date and b.status = :status order by b.end DESC, b.id")
+    List<ItemBookingDto> searchLastBookingForItem(@NonNull Long itemId, LocalDateTime date, BookingStatus status,
+                                                  Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingDto(b.id, b.booker.id) from Booking b " +
+            "where b.item.id = :itemId and b.start > :date and b.status = :status order by b.start ASC, b.id")
+    List<ItemBookingDto> searchNextBookingForItem(@NonNull Long itemId, LocalDateTime date, BookingStatus status,
+                                                  Pageable pageable);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingSummaryDto(b.item.id, b.id, b.booker.id) " +
+            "from Booking b where b.item.id in :itemIds and b.status = :status and b.start < :date " +
+            "and b.end = (select max(lb.end) from Booking lb " +
+            "where lb.item.id = b.item.id and lb.status = :status and lb.start < :date) order by b.id")
+    List<ItemBookingSummaryDto> searchLastBookingsForItems(@NonNull Collection<Long> itemIds, LocalDateTime date,
+                                                          BookingStatus status);
+
+    @Query("select new ru.practicum.shareit.item.dto.ItemBookingSummaryDto(b.item.id, b.id, b.booker.id) " +
+            "from Booking b where b.item.id in :itemIds and b.status = :status and b.start > :date " +
+            "and b.start = (select min(nb.start) from Booking nb " +
+            "where nb.item.id = b.item.id and nb.status = :status and nb.start > :date) order by b.id")
+    List<ItemBookingSummaryDto> searchNextBookingsForItems(@NonNull Collection<Long> itemIds, LocalDateTime date,
+                                                          BookingStatus status);
+
+    @Query("select case when count(b) > 0 then true else false end from Booking b where b.item.id = :itemId " +
+            "and b.booker.id = :bookerId and b.status = :status and b.end < :end")
+    boolean existsByItemIdAndBookerIdAndStatusAndEndIsBefore(@NonNull Long itemId,
+                                                             @NonNull Long bookerId,
+                                                             @NonNull BookingStatus status,
+                                                             LocalDateTime end);
 
-    @Query("select b from Booking b where b.booker.id = :bookerId and b.start > :date order by b.start DESC")
-    Page<Booking> searchByBookerInFutureTime(Long bookerId, LocalDateTime date, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.status = :status order by b.start DESC")
+    Slice<BookingView> searchByItemOwnerAndStatus(@NonNull Long id, @NonNull BookingStatus status,
+                                                  Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :id order by b.start DESC")
-    Page<Booking> searchByItemOwner(@NonNull Long id, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = :id" + AFTER_CURSOR)
+    Slice<BookingView> searchByBookerAfter(@NonNull Long id, LocalDateTime afterStart, Long afterId,
+                                           Pageable pageable);
 
-    @Query("select b from Booking b where  b.item.owner.id = :id and b.end < :date order by b.start DESC")
-    Page<Booking> searchByItemOwnerInPastTime(@NonNull Long id, LocalDateTime date, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = :id and b.status = :status" + AFTER_CURSOR)
+    Slice<BookingView> searchByBookerAndStatusAfter(@NonNull Long id, @NonNull BookingStatus status,
+                                                    LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :id and b.start > :date and b.end > :date  order by b.start DESC")
-    Page<Booking> searchBookingsByItemOwnerInFutureTime(@NonNull Long id, LocalDateTime date, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = :id and b.start < :date and b.end > :date" + AFTER_CURSOR)
+    Slice<BookingView> searchByBookerInPresentTimeAfter(@NonNull Long id, LocalDateTime date,
+                                                        LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.owner.id = :id and b.start < :date and b.end > :date  order by b.start DESC")
-    Page<Booking> searchByItemOwnerInPresentTime(@NonNull Long id, LocalDateTime date, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.booker.id = :id and b.end < :date" + AFTER_CURSOR)
+    Slice<BookingView> searchByBookerInPastTimeAfter(@NonNull Long id, LocalDateTime date,
+                                                     LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = :itemId and ((b.start < :end and b.end > :end)" +
-            " or (b.start < :start and b.end > :start) or (b.start > :start and b.end < :end)) order by b.start desc")
-    List<Booking> searchByItemIdAndStartAddEnd(@NonNull Long itemId, LocalDateTime start, LocalDateTime end);
+    @Query(BOOKING_VIEW + "where b.booker.id = :id and b.start > :date" + AFTER_CURSOR)
+    Slice<BookingView> searchByBookerInFutureTimeAfter(@NonNull Long id, LocalDateTime date,
+                                                       LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = :itemId and b.start < :date and b.status = :status order by b.start DESC")
-    List<Booking> searchByItemIdAndEndBeforeDate(@NonNull Long itemId, LocalDateTime date, BookingStatus status);
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id" + AFTER_CURSOR)
+    Slice<BookingView> searchByItemOwnerAfter(@NonNull Long id, LocalDateTime afterStart, Long afterId,
+                                              Pageable pageable);
 
-    @Query("select b from Booking b where b.item.id = :itemId and b.start > :date and b.status = :status order by b.start ASC")
-    List<Booking> searchByItemIdAndStartAfterDate(@NonNull Long itemId, LocalDateTime date, BookingStatus status);
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.status = :status" + AFTER_CURSOR)
+    Slice<BookingView> searchByItemOwnerAndStatusAfter(@NonNull Long id, @NonNull BookingStatus status,
+                                                       LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    boolean existsByItemIdAndBookerIdAndStatusAndEndIsBefore(@NonNull Long itemId,
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.start < :date and b.end > :date" + AFTER_CURSOR)
+    Slice<BookingView> searchByItemOwnerInPresentTimeAfter(@NonNull Long id, LocalDateTime date,
+                                                           LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-                                                             @NonNull Long bookerId,
-                                                             @NonNull BookingStatus status,
-                                                             LocalDateTime end);
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.end < :date" + AFTER_CURSOR)
+    Slice<BookingView> searchByItemOwnerInPastTimeAfter(@NonNull Long id, LocalDateTime date,
+                                                        LocalDateTime afterStart, Long afterId, Pageable pageable);
 
-    @Query("select b from Booking b " +
-            "where b.item.owner.id = :id and b.status = :status " +
-            "order by b.start DESC")
-    Page<Booking> searchByItemOwnerAndStatus(@NonNull Long id,
-                                             @NonNull BookingStatus status, Pageable pageable);
+    @Query(BOOKING_VIEW + "where b.itemOwnerId = :id and b.start > :date" + AFTER_CURSOR)
+    Slice<BookingView> searchByItemOwnerInFutureTimeAfter(@NonNull Long id, LocalDateTime date,
+                                                          LocalDateTime afterStart, Long afterId, Pageable pageable);
 }
\ No newline at end of file
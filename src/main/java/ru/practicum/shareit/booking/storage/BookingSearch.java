@@ -1,69 +1,150 @@
 package ru.practicum.shareit.booking.storage;
 
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Component;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingSearchType;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.pagination.Cursor;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Objects;
 
 @Component
 @RequiredArgsConstructor
 public class BookingSearch {
 
+    /**
+     * Order of the cursor listings; id breaks ties between bookings with the same start.
+     */
+    private static final Sort KEYSET_ORDER = Sort.by(Sort.Direction.DESC, "start")
+            .and(Sort.by(Sort.Direction.DESC, "id"));
+
     private final BookingRepository bookingRepository;
 
-    public List<Booking> getBookings(long ownerId, BookingSearchType type, Pageable pageable) {
+    public List<BookingView> getBookings(long ownerId, BookingSearchType type, Pageable pageable) {
+        return searchByBooker(ownerId, type, pageable).getContent();
+    }
+
+    public List<BookingView> getBookingsByItemsOwner(long ownerId, BookingSearchType type, Pageable pageable) {
+        return searchByItemOwner(ownerId, type, pageable).getContent();
+    }
+
+    public Slice<BookingView> getBookings(long bookerId, BookingSearchType type, Cursor after, int size) {
+        if (Objects.isNull(after)) {
+            return searchByBooker(bookerId, type, PageRequest.of(0, size, KEYSET_ORDER));
+        }
+        Pageable limit = PageRequest.of(0, size);
+        LocalDateTime afterStart = after.getTimestamp();
+        Long afterId = after.getId();
+        switch (type) {
+            case ALL:
+                return bookingRepository
+                        .searchByBookerAfter(bookerId, afterStart, afterId, limit);
+            case PAST:
+                return bookingRepository
+                        .searchByBookerInPastTimeAfter(bookerId, LocalDateTime.now(), afterStart, afterId, limit);
+            case FUTURE:
+                return bookingRepository
+                        .searchByBookerInFutureTimeAfter(bookerId, LocalDateTime.now(), afterStart, afterId, limit);
+            case CURRENT:
+                return bookingRepository
+                        .searchByBookerInPresentTimeAfter(bookerId, LocalDateTime.now(), afterStart, afterId, limit);
+            case WAITING:
+                return bookingRepository
+                        .searchByBookerAndStatusAfter(bookerId, BookingStatus.WAITING, afterStart, afterId, limit);
+            case REJECTED:
+                return bookingRepository
+                        .searchByBookerAndStatusAfter(bookerId, BookingStatus.REJECTED, afterStart, afterId, limit);
+            default:
+                throw new BadRequestException("Unknown state");
+        }
+    }
+
+    public Slice<BookingView> getBookingsByItemsOwner(long ownerId, BookingSearchType type, Cursor after,
+                                                  int size) {
+        if (Objects.isNull(after)) {
+            return searchByItemOwner(ownerId, type, PageRequest.of(0, size, KEYSET_ORDER));
+        }
+        Pageable limit = PageRequest.of(0, size);
+        LocalDateTime afterStart = after.getTimestamp();
+        Long afterId = after.getId();
+        switch (type) {
+            case ALL:
+                return bookingRepository
+                        .searchByItemOwnerAfter(ownerId, afterStart, afterId, limit);
+            case PAST:
+                return bookingRepository
+                        .searchByItemOwnerInPastTimeAfter(ownerId, LocalDateTime.now(), afterStart, afterId, limit);
+            case FUTURE:
+                return bookingRepository
+                        .searchByItemOwnerInFutureTimeAfter(ownerId, LocalDateTime.now(), afterStart, afterId, limit);
+            case CURRENT:
+                return bookingRepository
+                        .searchByItemOwnerInPresentTimeAfter(ownerId, LocalDateTime.now(), afterStart, afterId, limit);
+            case WAITING:
+                return bookingRepository
+                        .searchByItemOwnerAndStatusAfter(ownerId, BookingStatus.WAITING, afterStart, afterId, limit);
+            case REJECTED:
+                return bookingRepository
+                        .searchByItemOwnerAndStatusAfter(ownerId, BookingStatus.REJECTED, afterStart, afterId, limit);
+            default:
+                throw new BadRequestException("Unknown state");
+        }
+    }
+
+    private Slice<BookingView> searchByBooker(long ownerId, BookingSearchType type, Pageable pageable) {
         switch (type) {
             case ALL:
                 return bookingRepository
-                        .searchByBooker(ownerId, pageable).getContent();
+                        .searchByBooker(ownerId, pageable);
             case PAST:
                 return bookingRepository
-                        .searchByBookerInPastTime(ownerId, LocalDateTime.now(), pageable).getContent();
+                        .searchByBookerInPastTime(ownerId, LocalDateTime.now(), pageable);
             case FUTURE:
                 return bookingRepository
-                        .searchByBookerInFutureTime(ownerId, LocalDateTime.now(), pageable).getContent();
+                        .searchByBookerInFutureTime(ownerId, LocalDateTime.now(), pageable);
             case CURRENT:
                 return bookingRepository
-                        .searchByBookerInPresentTime(ownerId, LocalDateTime.now(), pageable).getContent();
+                        .searchByBookerInPresentTime(ownerId, LocalDateTime.now(), pageable);
             case WAITING:
                 return bookingRepository
-                        .searchByBookerAndStatus(ownerId, BookingStatus.WAITING, pageable).getContent();
+                        .searchByBookerAndStatus(ownerId, BookingStatus.WAITING, pageable);
             case REJECTED:
                 return bookingRepository
-                        .searchByBookerAndStatus(ownerId, BookingStatus.REJECTED, pageable).getContent();
+                        .searchByBookerAndStatus(ownerId, BookingStatus.REJECTED, pageable);
             default:
                 throw new BadRequestException("Unknown state");
         }
     }
 
-    public List<Booking> getBookingsByItemsOwner(long ownerId, BookingSearchType type, Pageable pageable) {
+    private Slice<BookingView> searchByItemOwner(long ownerId, BookingSearchType type, Pageable pageable) {
         switch (type) {
             case ALL:
                 return bookingRepository
-                        .searchByItemOwner(ownerId, pageable).getContent();
+                        .searchByItemOwner(ownerId, pageable);
             case PAST:
                 return bookingRepository
-                        .searchByItemOwnerInPastTime(ownerId, LocalDateTime.now(), pageable).getContent();
+                        .searchByItemOwnerInPastTime(ownerId, LocalDateTime.now(), pageable);
             case FUTURE:
                 return bookingRepository
-                        .searchBookingsByItemOwnerInFutureTime(ownerId, LocalDateTime.now(), pageable).getContent();
+                        .searchBookingsByItemOwnerInFutureTime(ownerId, LocalDateTime.now(), pageable);
             case CURRENT:
                 return bookingRepository
-                        .searchByItemOwnerInPresentTime(ownerId, LocalDateTime.now(), pageable).getContent();
+                        .searchByItemOwnerInPresentTime(ownerId, LocalDateTime.now(), pageable);
             case WAITING:
                 return bookingRepository
-                        .searchByItemOwnerAndStatus(ownerId, BookingStatus.WAITING, pageable).getContent();
+                        .searchByItemOwnerAndStatus(ownerId, BookingStatus.WAITING, pageable);
             case REJECTED:
                 return bookingRepository
-                        .searchByItemOwnerAndStatus(ownerId, BookingStatus.REJECTED, pageable).getContent();
+                        .searchByItemOwnerAndStatus(ownerId, BookingStatus.REJECTED, pageable);
             default:
                 throw new BadRequestException("Unknown state");
         }
     }
-}
\ No newline at end of file
+}
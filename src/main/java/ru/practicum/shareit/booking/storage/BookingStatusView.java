@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingStatusView {
+
+    private final Long itemId;
+    private final Long ownerId;
+    private final BookingStatus status;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+}
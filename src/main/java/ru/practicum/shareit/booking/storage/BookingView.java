@@ -0,0 +1,30 @@
+package ru.practicum.shareit.booking.storage;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingView {
+
+    private final Long id;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+    private final Long itemId;
+    private final String itemName;
+    private final String itemDescription;
+    private final Boolean itemAvailable;
+    private final Long itemRequestId;
+    private final Long ownerId;
+    private final String ownerName;
+    private final String ownerEmail;
+    private final Long bookerId;
+    private final String bookerName;
+    private final String bookerEmail;
+}
@@ -0,0 +1,48 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.EnumSet;
+import java.util.Set;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class BookingSlot {
+
+    public static final Set<BookingStatus> ACTIVE_STATUSES = EnumSet.of(BookingStatus.WAITING, BookingStatus.APPROVED);
+
+    static final Comparator<BookingSlot> BY_START = Comparator.comparing(BookingSlot::getStart)
+            .thenComparing(BookingSlot::getId);
+
+    private final Long itemId;
+    private final Long id;
+    private final Long bookerId;
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+    private final BookingStatus status;
+
+    public static BookingSlot of(Booking booking) {
+        return new BookingSlot(booking.getItem().getId(), booking.getId(), booking.getBooker().getId(),
+                booking.getStart(), booking.getEnd(), booking.getStatus());
+    }
+
+    static BookingSlot probe(LocalDateTime start, long id) {
+        return new BookingSlot(null, id, null, start, start, null);
+    }
+
+    public boolean isActive() {
+        return ACTIVE_STATUSES.contains(status);
+    }
+
+    public ItemBookingDto toItemBookingDto() {
+        return new ItemBookingDto(id, bookerId);
+    }
+}
@@ -0,0 +1,20 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Answers per-item booking timeline questions: whether a period is taken by a WAITING or APPROVED booking,
+ * and which APPROVED bookings are the last one started before and the next one starting after a moment.
+ */
+public interface BookingTimeline {
+
+    boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end);
+
+    Map<Long, ItemBookingDto> findLastBookings(Collection<Long> itemIds, LocalDateTime date);
+
+    Map<Long, ItemBookingDto> findNextBookings(Collection<Long> itemIds, LocalDateTime date);
+}
@@ -0,0 +1,110 @@
+package ru.practicum.shareit.booking.timeline;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChanged;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.event.ItemChanged;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.BiFunction;
+
+/**
+ * Keeps booking timelines of recently used items in memory. A timeline is loaded from the database on first
+ * use and then kept up to date from {@link BookingChanged} events; entries expire after a while, which bounds
+ * staleness from changes made by other instances or by cascading deletes.
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "shareit.booking.timeline.in-memory", havingValue = "true")
+public class InMemoryBookingTimeline implements BookingTimeline {
+
+    private final BookingRepository bookingRepository;
+
+    private final Cache<Long, ItemTimeline> timelines;
+
+    public InMemoryBookingTimeline(BookingRepository bookingRepository,
+                                   @Value("${shareit.booking.timeline.maximum-size:10000}") long maximumSize,
+                                   @Value("${shareit.booking.timeline.ttl-seconds:600}") long ttlSeconds) {
+        this.bookingRepository = bookingRepository;
+        this.timelines = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    @Override
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return timelines.get(itemId, id -> loadTimelines(List.of(id)).get(id)).overlaps(start, end);
+    }
+
+    @Override
+    public Map<Long, ItemBookingDto> findLastBookings(Collection<Long> itemIds, LocalDateTime date) {
+        return find(itemIds, date, ItemTimeline::last);
+    }
+
+    @Override
+    public Map<Long, ItemBookingDto> findNextBookings(Collection<Long> itemIds, LocalDateTime date) {
+        return find(itemIds, date, ItemTimeline::next);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChanged event) {
+        onBookingSaved(event.getBooking());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChanged event) {
+        if (event.isDeleted()) {
+            timelines.invalidate(event.getItemId());
+        }
+    }
+
+    public void onBookingSaved(Booking booking) {
+        BookingSlot slot = BookingSlot.of(booking);
+        timelines.asMap().computeIfPresent(slot.getItemId(), (itemId, timeline) -> {
+            timeline.put(slot);
+            return timeline;
+        });
+    }
+
+    private Map<Long, ItemBookingDto> find(Collection<Long> itemIds, LocalDateTime date,
+                                           BiFunction<ItemTimeline, LocalDateTime, BookingSlot> lookup) {
+        Map<Long, ItemBookingDto> bookings = new HashMap<>();
+        timelines.getAll(itemIds, this::loadTimelines).forEach((itemId, timeline) -> {
+            BookingSlot slot = lookup.apply(timeline, date);
+            if (Objects.nonNull(slot)) {
+                bookings.put(itemId, slot.toItemBookingDto());
+            }
+        });
+        return bookings;
+    }
+
+    private Map<Long, ItemTimeline> loadTimelines(Iterable<? extends Long> itemIds) {
+        List<Long> ids = new ArrayList<>();
+        Map<Long, ItemTimeline> loaded = new HashMap<>();
+        for (Long itemId : itemIds) {
+            ids.add(itemId);
+            loaded.put(itemId, new ItemTimeline());
+        }
+        List<BookingSlot> slots = bookingRepository.searchSlotsForItems(ids, BookingSlot.ACTIVE_STATUSES);
+        slots.forEach(slot -> loaded.get(slot.getItemId()).put(slot));
+        log.debug("Booking timelines loaded for items {}: {} bookings", ids, slots.size());
+        return loaded;
+    }
+}
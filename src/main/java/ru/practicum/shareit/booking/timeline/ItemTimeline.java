@@ -0,0 +1,54 @@
+package ru.practicum.shareit.booking.timeline;
+
+import ru.practicum.shareit.booking.model.BookingStatus;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Objects;
+import java.util.TreeSet;
+
+/**
+ * WAITING and APPROVED bookings of one item ordered by start. Active bookings never overlap, as BookingService
+ * checks every booking entering the active set, on creation and on approval of a rejected one. So the booking
+ * with the greatest start before a moment also has the greatest end, and every lookup is a single
+ * navigation of a sorted set.
+ */
+class ItemTimeline {
+
+    private final NavigableSet<BookingSlot> active = new TreeSet<>(BookingSlot.BY_START);
+
+    private final NavigableSet<BookingSlot> approved = new TreeSet<>(BookingSlot.BY_START);
+
+    private final Map<Long, BookingSlot> slotsById = new HashMap<>();
+
+    synchronized void put(BookingSlot slot) {
+        BookingSlot previous = slotsById.remove(slot.getId());
+        if (Objects.nonNull(previous)) {
+            active.remove(previous);
+            approved.remove(previous);
+        }
+        if (!slot.isActive()) {
+            return;
+        }
+        slotsById.put(slot.getId(), slot);
+        active.add(slot);
+        if (slot.getStatus() == BookingStatus.APPROVED) {
+            approved.add(slot);
+        }
+    }
+
+    synchronized boolean overlaps(LocalDateTime start, LocalDateTime end) {
+        BookingSlot candidate = active.lower(BookingSlot.probe(end, Long.MIN_VALUE));
+        return Objects.nonNull(candidate) && candidate.getEnd().isAfter(start);
+    }
+
+    synchronized BookingSlot last(LocalDateTime date) {
+        return approved.lower(BookingSlot.probe(date, Long.MIN_VALUE));
+    }
+
+    synchronized BookingSlot next(LocalDateTime date) {
+        return approved.higher(BookingSlot.probe(date, Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,67 @@
+package ru.practicum.shareit.booking.timeline;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.item.dto.ItemBookingDto;
+import ru.practicum.shareit.item.dto.ItemBookingSummaryDto;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Answers timeline questions with indexed queries. A single item, as on the item card, is looked up with a
+ * top-1 query per direction; several items use one query per direction for the whole batch.
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "shareit.booking.timeline.in-memory", havingValue = "false", matchIfMissing = true)
+public class RepositoryBookingTimeline implements BookingTimeline {
+
+    private static final Pageable FIRST = PageRequest.of(0, 1);
+
+    private final BookingRepository bookingRepository;
+
+    @Override
+    public boolean hasOverlap(Long itemId, LocalDateTime start, LocalDateTime end) {
+        return bookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter(itemId,
+                BookingSlot.ACTIVE_STATUSES, end, start);
+    }
+
+    @Override
+    public Map<Long, ItemBookingDto> findLastBookings(Collection<Long> itemIds, LocalDateTime date) {
+        if (itemIds.size() == 1) {
+            Long itemId = itemIds.iterator().next();
+            return toBookingByItemId(itemId,
+                    bookingRepository.searchLastBookingForItem(itemId, date, BookingStatus.APPROVED, FIRST));
+        }
+        return toBookingsByItemId(bookingRepository.searchLastBookingsForItems(itemIds, date, BookingStatus.APPROVED));
+    }
+
+    @Override
+    public Map<Long, ItemBookingDto> findNextBookings(Collection<Long> itemIds, LocalDateTime date) {
+        if (itemIds.size() == 1) {
+            Long itemId = itemIds.iterator().next();
+            return toBookingByItemId(itemId,
+                    bookingRepository.searchNextBookingForItem(itemId, date, BookingStatus.APPROVED, FIRST));
+        }
+        return toBookingsByItemId(bookingRepository.searchNextBookingsForItems(itemIds, date, BookingStatus.APPROVED));
+    }
+
+    private Map<Long, ItemBookingDto> toBookingByItemId(Long itemId, List<ItemBookingDto> bookings) {
+        return bookings.isEmpty() ? Map.of() : Map.of(itemId, bookings.get(0));
+    }
+
+    private Map<Long, ItemBookingDto> toBookingsByItemId(List<ItemBookingSummaryDto> bookings) {
+        return bookings.stream()
+                .collect(Collectors.toMap(ItemBookingSummaryDto::getItemId,
+                        ItemBookingSummaryDto::toItemBookingDto, (first, second) -> first));
+    }
+}
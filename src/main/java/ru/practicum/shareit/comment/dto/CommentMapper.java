@@ -6,7 +6,7 @@ import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 import ru.practicum.shareit.comment.model.Comment;
 
-import java.util.Set;
+import java.util.List;
 
 @Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, componentModel = "spring")
 public interface CommentMapper {
@@ -18,5 +18,5 @@ public interface CommentMapper {
     @InheritInverseConfiguration(name = "toComment")
     CommentDto toDto(Comment comment);
 
-    Set<CommentDto> map(Set<Comment> comments);
+    List<CommentDto> map(List<Comment> comments);
 }
\ No newline at end of file
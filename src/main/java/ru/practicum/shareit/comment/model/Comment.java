@@ -17,11 +17,14 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
 
 @Entity
 @Table(name = "comments")
+@NamedEntityGraph(name = Comment.AUTHOR_GRAPH, attributeNodes = @NamedAttributeNode("author"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Getter
@@ -29,6 +32,11 @@ import java.time.LocalDateTime;
 @Builder(toBuilder = true)
 public class Comment {
 
+    /**
+     * Comment listings: comment with its author.
+     */
+    public static final String AUTHOR_GRAPH = "Comment.author";
+
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -41,7 +49,7 @@ public class Comment {
     @JsonIgnore
     private User author;
 
-    @ManyToOne
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "item_id", nullable = false)
     @JsonIgnore
     private Item item;
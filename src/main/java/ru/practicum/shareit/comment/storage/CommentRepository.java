@@ -1,7 +1,22 @@
 package ru.practicum.shareit.comment.storage;
 
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import ru.practicum.shareit.comment.model.Comment;
 
+import java.time.LocalDateTime;
+
 public interface CommentRepository extends JpaRepository<Comment, Long> {
-}
\ No newline at end of file
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("select c from Comment c where c.item.id = :itemId order by c.created desc, c.id desc")
+    Slice<Comment> findByItemIdOrderByCreatedDescIdDesc(Long itemId, Pageable pageable);
+
+    @EntityGraph(Comment.AUTHOR_GRAPH)
+    @Query("select c from Comment c where c.item.id = :itemId "
+            + "and (c.created < :created or (c.created = :created and c.id < :id)) order by c.created desc, c.id desc")
+    Slice<Comment> findByItemIdAfter(Long itemId, LocalDateTime created, Long id, Pageable pageable);
+}
@@ -3,10 +3,12 @@ package ru.practicum.shareit.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
 
+import javax.validation.ConstraintViolationException;
 import java.util.Map;
 
 @RestControllerAdvice
@@ -24,7 +26,8 @@ public class ExceptionController {
                 MESSAGE, e.getMessage());
     }
 
-    @ExceptionHandler(FindDuplicateException.class)
+    @ExceptionHandler({FindDuplicateException.class, ConflictException.class,
+            ObjectOptimisticLockingFailureException.class})
     @ResponseStatus(HttpStatus.CONFLICT)
     public Map<String, String> handleConflict(final RuntimeException e) {
         log.error(e.getMessage(), e);
@@ -47,4 +50,12 @@ public class ExceptionController {
                 .status(HttpStatus.BAD_REQUEST)
                 .body(new ErrorResponse(e.getMessage()));
     }
+
+    @ExceptionHandler
+    public ResponseEntity<ErrorResponse> handleConstraintViolation(final ConstraintViolationException e) {
+        log.warn(e.getMessage());
+        return ResponseEntity
+                .status(HttpStatus.BAD_REQUEST)
+                .body(new ErrorResponse(e.getMessage()));
+    }
 }
\ No newline at end of file
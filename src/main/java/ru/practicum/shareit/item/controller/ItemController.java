@@ -4,6 +4,8 @@ import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -16,12 +18,19 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
 import ru.practicum.shareit.comment.dto.CommentDto;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.pagination.CursorPages;
+import ru.practicum.shareit.pagination.PageLimits;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -37,10 +46,12 @@ public class ItemController {
 
     private final ItemService itemService;
 
+    private final ItemAvailabilityService itemAvailabilityService;
+
     @GetMapping
     public List<ItemDto> getItems(@RequestHeader(USER_ID_HEADER) long userId,
                                   @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-                                  @RequestParam(defaultValue = "10") @Positive Integer size) {
+                                  @RequestParam(defaultValue = "10") @Positive @Max(PageLimits.MAX_SIZE) Integer size) {
         Pageable pageable = PageRequest.of(from / size, size,
                 Sort.by(Sort.Direction.ASC, ITEM_ID_FIELD_NAME));
         return itemService.getItems(userId, pageable);
@@ -51,6 +62,15 @@ public class ItemController {
         return itemService.getItem(userId, itemId);
     }
 
+    @GetMapping("/{itemId}/availability")
+    public ItemAvailabilityDto getAvailability(@RequestHeader(USER_ID_HEADER) long userId, @PathVariable long itemId,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+                                               @RequestParam(required = false)
+                                               @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        return itemAvailabilityService.getAvailability(userId, itemId, from, to);
+    }
+
     @PostMapping
     public ItemDto add(@RequestHeader(USER_ID_HEADER) Long userId,
                        @RequestBody @Valid ItemDto item) {
@@ -72,9 +92,25 @@ public class ItemController {
     @GetMapping("/search")
     public List<ItemDto> search(@RequestHeader(USER_ID_HEADER) long userId,
                                 @RequestParam(required = false) @PositiveOrZero Integer from,
-                                @RequestParam(required = false) @Positive Integer size,
+                                @RequestParam(required = false) @Positive @Max(PageLimits.MAX_SIZE) Integer size,
+                                @RequestParam(required = false) @PositiveOrZero Long afterId,
                                 @RequestParam String text) {
-        return itemService.searchItem(userId, text, from, size);
+        return itemService.searchItem(userId, text, from, size, afterId);
+    }
+
+    /**
+     * Lists comments of the item, newest first. Without {@code cursor} the listing starts from the newest comment;
+     * the value from the {@value CursorPages#NEXT_CURSOR_HEADER} header continues it. The header is absent on the last
+     * page.
+     */
+    @GetMapping("/{itemId}/comments")
+    public ResponseEntity<List<CommentDto>> getComments(
+            @RequestHeader(USER_ID_HEADER) long userId,
+            @PathVariable long itemId,
+            @RequestParam(defaultValue = "10") @Positive @Max(PageLimits.MAX_SIZE) Integer size,
+            @RequestParam(required = false) String cursor) {
+        return CursorPages.toResponse(itemService.getComments(userId, itemId, CursorPages.decode(cursor), size),
+                comment -> new Cursor(comment.getCreated(), comment.getId()));
     }
 
     @PostMapping("/{itemId}/comment")
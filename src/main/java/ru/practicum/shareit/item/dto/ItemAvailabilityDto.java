@@ -0,0 +1,27 @@
+package ru.practicum.shareit.item.dto;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+import com.fasterxml.jackson.datatype.jsr310.ser.LocalDateTimeSerializer;
+import lombok.Builder;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder(toBuilder = true)
+public class ItemAvailabilityDto {
+
+    private final Long itemId;
+
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonFormat(pattern = "uuuu-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime from;
+
+    @JsonSerialize(using = LocalDateTimeSerializer.class)
+    @JsonFormat(pattern = "uuuu-MM-dd'T'HH:mm:ss")
+    private final LocalDateTime to;
+
+    private final List<PeriodDto> free;
+}
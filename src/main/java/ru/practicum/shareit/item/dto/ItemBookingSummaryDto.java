@@ -0,0 +1,19 @@
+package ru.practicum.shareit.item.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+@Getter
+@ToString
+@AllArgsConstructor
+public class ItemBookingSummaryDto {
+
+    private final Long itemId;
+    private final Long id;
+    private final Long bookerId;
+
+    public ItemBookingDto toItemBookingDto() {
+        return new ItemBookingDto(id, bookerId);
+    }
+}
@@ -0,0 +1,47 @@
+package ru.practicum.shareit.item.event;
+
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+
+import java.util.Objects;
+
+/**
+ * An item was created, updated or deleted. Caches and indexes over items subscribe to it and apply the change
+ * after the transaction that made it commits. previous is null for a created item, current for a deleted one;
+ * itemDto always describes the item as the response shows it.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public class ItemChanged {
+
+    private final Item previous;
+
+    private final Item current;
+
+    private final ItemDto itemDto;
+
+    public static ItemChanged created(Item item, ItemDto itemDto) {
+        return new ItemChanged(null, item, itemDto);
+    }
+
+    public static ItemChanged updated(Item previous, Item current, ItemDto itemDto) {
+        return new ItemChanged(previous, current, itemDto);
+    }
+
+    public static ItemChanged deleted(Item item, ItemDto itemDto) {
+        return new ItemChanged(item, null, itemDto);
+    }
+
+    public Long getItemId() {
+        return itemDto.getId();
+    }
+
+    public boolean isDeleted() {
+        return Objects.isNull(current);
+    }
+}
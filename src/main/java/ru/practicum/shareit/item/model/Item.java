@@ -19,12 +19,16 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import java.util.Set;
 
 @Table(name = "items")
 @Entity
+@NamedEntityGraph(name = Item.OWNER_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
 @Getter
 @Setter
 @AllArgsConstructor
@@ -32,6 +36,11 @@ import java.util.Set;
 @Builder(toBuilder = true)
 public class Item {
 
+    /**
+     * Item card, owner listing and search results: item with its owner.
+     */
+    public static final String OWNER_GRAPH = "Item.owner";
+
     @Id
     @Column(nullable = false, updatable = false)
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -49,14 +58,18 @@ public class Item {
     @Column
     private Long requestId;
 
-    @ManyToOne
+    @Version
+    @Column(nullable = false)
+    private long version;
+
+    @ManyToOne(fetch = FetchType.LAZY)
     @JoinColumn(name = "owner_id", nullable = false)
     @JsonIgnore
     private User owner;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "item", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "item", cascade = CascadeType.ALL)
     private Set<Booking> itemBookings;
 
-    @OneToMany(fetch = FetchType.EAGER, mappedBy = "item", cascade = CascadeType.ALL)
+    @OneToMany(fetch = FetchType.LAZY, mappedBy = "item", cascade = CascadeType.ALL)
     private Set<Comment> itemComments;
 }
\ No newline at end of file
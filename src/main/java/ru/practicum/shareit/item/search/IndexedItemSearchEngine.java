@@ -0,0 +1,311 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChanged;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+/**
+ * In-process inverted index over name and description tokens of available items.
+ * <p>
+ * Every distinct token gets an ordinal in the term dictionary; each ordinal owns a primitive
+ * {@link PostingList} of item ids per field. Tokens are also indexed by their trigrams, so a substring
+ * lookup only verifies the terms sharing the rarest trigram of the query instead of scanning the dictionary.
+ * <p>
+ * Filled from the database on first use and then updated incrementally from {@link ItemChanged} events
+ * after the change commits. Search has the same meaning as in PostgresItemSearchEngine: an item matches when its
+ * lower-cased name or description contains the whole trimmed, lower-cased query. The postings only narrow
+ * the candidates to items where every query token is a substring of one of the item tokens; each candidate
+ * is then checked against the phrase, and a query without tokens checks every item. A match in the name
+ * ranks above a match only in the description.
+ */
+@Slf4j
+@Component
+@Profile("!postgres")
+@RequiredArgsConstructor
+public class IndexedItemSearchEngine implements ItemSearchEngine {
+
+    private static final int NAME_WEIGHT = 2;
+
+    private static final int DESCRIPTION_WEIGHT = 1;
+
+    private static final int GRAM_LENGTH = 3;
+
+    private static final int WARM_UP_BATCH_SIZE = 1000;
+
+    private static final String TOKEN_DELIMITER = "[^\\p{L}\\p{N}]+";
+
+    private final ItemRepository itemRepository;
+
+    private final Map<String, Integer> termOrdinals = new HashMap<>();
+
+    private final List<String> terms = new ArrayList<>();
+
+    private final List<PostingList> namePostings = new ArrayList<>();
+
+    private final List<PostingList> descriptionPostings = new ArrayList<>();
+
+    private final Map<String, PostingList> gramIndex = new HashMap<>();
+
+    private final Map<Long, ItemText> texts = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private volatile boolean loaded;
+
+    @Override
+    public Slice<Long> search(String text, Pageable pageable) {
+        Comparator<Map.Entry<Long, Integer>> byRank = Map.Entry.<Long, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey());
+        List<Long> ids = match(text).entrySet()
+                .stream()
+                .sorted(byRank)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+        return toSlice(ids, pageable);
+    }
+
+    @Override
+    public Slice<Long> searchAfterId(String text, long afterId, int size) {
+        List<Long> ids = match(text).keySet()
+                .stream()
+                .filter(id -> id > afterId)
+                .sorted()
+                .collect(Collectors.toList());
+        return toSlice(ids, PageRequest.of(0, size));
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChanged event) {
+        if (Objects.isNull(event.getPrevious())) {
+            add(event.getCurrent());
+        } else if (event.isDeleted()) {
+            remove(event.getPrevious());
+        } else {
+            update(event.getPrevious(), event.getCurrent());
+        }
+    }
+
+    public void add(Item item) {
+        write(() -> addToIndex(item));
+    }
+
+    /**
+     * Re-indexes an item; previous is the state the item was indexed with.
+     */
+    public void update(Item previous, Item current) {
+        write(() -> {
+            removeFromIndex(previous);
+            addToIndex(current);
+        });
+    }
+
+    public void remove(Item item) {
+        write(() -> removeFromIndex(item));
+    }
+
+    private void write(Runnable change) {
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                change.run();
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private Map<Long, Integer> match(String text) {
+        ensureLoaded();
+        String phrase = text.trim().toLowerCase();
+        if (phrase.isEmpty()) {
+            return Map.of();
+        }
+        lock.readLock().lock();
+        try {
+            Map<Long, Integer> scores = new HashMap<>();
+            for (long id : findCandidates(tokenize(phrase))) {
+                ItemText itemText = texts.get(id);
+                if (itemText.name.contains(phrase)) {
+                    scores.put(id, NAME_WEIGHT);
+                } else if (itemText.description.contains(phrase)) {
+                    scores.put(id, DESCRIPTION_WEIGHT);
+                }
+            }
+            return scores;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private Collection<Long> findCandidates(List<String> tokens) {
+        if (tokens.isEmpty()) {
+            return texts.keySet();
+        }
+        Set<Long> candidates = null;
+        for (String token : tokens) {
+            Set<Long> tokenCandidates = new HashSet<>();
+            for (int ordinal : findTerms(token)) {
+                namePostings.get(ordinal).forEach(tokenCandidates::add);
+                descriptionPostings.get(ordinal).forEach(tokenCandidates::add);
+            }
+            if (candidates == null) {
+                candidates = tokenCandidates;
+            } else {
+                candidates.retainAll(tokenCandidates);
+            }
+            if (candidates.isEmpty()) {
+                break;
+            }
+        }
+        return candidates;
+    }
+
+    private List<Integer> findTerms(String token) {
+        List<Integer> ordinals = new ArrayList<>();
+        if (token.length() < GRAM_LENGTH) {
+            for (int ordinal = 0; ordinal < terms.size(); ordinal++) {
+                if (terms.get(ordinal).contains(token)) {
+                    ordinals.add(ordinal);
+                }
+            }
+            return ordinals;
+        }
+        PostingList candidates = null;
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            PostingList gramTerms = gramIndex.get(token.substring(i, i + GRAM_LENGTH));
+            if (gramTerms == null) {
+                return ordinals;
+            }
+            if (candidates == null || gramTerms.size() < candidates.size()) {
+                candidates = gramTerms;
+            }
+        }
+        candidates.forEach(ordinal -> {
+            if (terms.get((int) ordinal).contains(token)) {
+                ordinals.add((int) ordinal);
+            }
+        });
+        return ordinals;
+    }
+
+    private void ensureLoaded() {
+        if (loaded) {
+            return;
+        }
+        lock.writeLock().lock();
+        try {
+            if (loaded) {
+                return;
+            }
+            Pageable pageable = PageRequest.of(0, WARM_UP_BATCH_SIZE, Sort.by(Sort.Direction.ASC, "id"));
+            Slice<Item> items;
+            int count = 0;
+            do {
+                items = itemRepository.findByAvailableTrue(pageable);
+                items.forEach(this::addToIndex);
+                count += items.getNumberOfElements();
+                pageable = items.nextPageable();
+            } while (items.hasNext());
+            loaded = true;
+            log.info("Item search index loaded, items indexed: {}, terms: {}", count, terms.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private void addToIndex(Item item) {
+        if (!Boolean.TRUE.equals(item.getAvailable())) {
+            return;
+        }
+        tokenize(item.getName()).forEach(token -> namePostings.get(termOrdinal(token)).add(item.getId()));
+        tokenize(item.getDescription())
+                .forEach(token -> descriptionPostings.get(termOrdinal(token)).add(item.getId()));
+        texts.put(item.getId(), new ItemText(lowerCase(item.getName()), lowerCase(item.getDescription())));
+    }
+
+    private void removeFromIndex(Item item) {
+        texts.remove(item.getId());
+        tokenize(item.getName()).forEach(token -> {
+            Integer ordinal = termOrdinals.get(token);
+            if (ordinal != null) {
+                namePostings.get(ordinal).remove(item.getId());
+            }
+        });
+        tokenize(item.getDescription()).forEach(token -> {
+            Integer ordinal = termOrdinals.get(token);
+            if (ordinal != null) {
+                descriptionPostings.get(ordinal).remove(item.getId());
+            }
+        });
+    }
+
+    private int termOrdinal(String token) {
+        Integer ordinal = termOrdinals.get(token);
+        if (ordinal != null) {
+            return ordinal;
+        }
+        int newOrdinal = terms.size();
+        termOrdinals.put(token, newOrdinal);
+        terms.add(token);
+        namePostings.add(new PostingList());
+        descriptionPostings.add(new PostingList());
+        for (int i = 0; i + GRAM_LENGTH <= token.length(); i++) {
+            gramIndex.computeIfAbsent(token.substring(i, i + GRAM_LENGTH), gram -> new PostingList()).add(newOrdinal);
+        }
+        return newOrdinal;
+    }
+
+    private List<String> tokenize(String text) {
+        if (text == null) {
+            return List.of();
+        }
+        return Arrays.stream(text.toLowerCase().split(TOKEN_DELIMITER))
+                .filter(token -> !token.isEmpty())
+                .distinct()
+                .collect(Collectors.toList());
+    }
+
+    private String lowerCase(String text) {
+        return text == null ? "" : text.toLowerCase();
+    }
+
+    private Slice<Long> toSlice(List<Long> ids, Pageable pageable) {
+        if (pageable.isUnpaged()) {
+            return new SliceImpl<>(ids, pageable, false);
+        }
+        int from = (int) Math.min(pageable.getOffset(), ids.size());
+        int to = Math.min(from + pageable.getPageSize(), ids.size());
+        return new SliceImpl<>(new ArrayList<>(ids.subList(from, to)), pageable, to < ids.size());
+    }
+
+    @RequiredArgsConstructor
+    private static class ItemText {
+        private final String name;
+        private final String description;
+    }
+}
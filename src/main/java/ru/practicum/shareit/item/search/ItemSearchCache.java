@@ -0,0 +1,176 @@
+package ru.practicum.shareit.item.search;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.event.ItemChanged;
+import ru.practicum.shareit.item.model.Item;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
+
+/**
+ * Bounded cache of search results (item id pages) keyed by normalized search text and page.
+ * An item change evicts every cached search with a token that is a substring of one of the item tokens
+ * before or after the change, so results of unrelated keywords survive. Cached searches are indexed by their
+ * tokens, so an item change looks up the substrings of its own tokens instead of scanning the cache; searches
+ * without tokens share a bucket that every change clears. A search loaded while an invalidation ran is not kept,
+ * as it may have read the item before the change. Hit/miss statistics are published as the "itemSearch" cache
+ * metrics.
+ */
+@Slf4j
+@Component
+public class ItemSearchCache implements MeterBinder {
+
+    private static final String TOKEN_DELIMITER = "[^\\p{L}\\p{N}]+";
+
+    private static final String NO_TOKENS = "";
+
+    private final Cache<SearchKey, Slice<Long>> cache;
+
+    private final Map<String, Set<SearchKey>> keysByToken = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemSearchCache(@Value("${shareit.search.cache.maximum-size:10000}") long maximumSize,
+                           @Value("${shareit.search.cache.ttl-seconds:300}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .evictionListener((SearchKey key, Slice<Long> ids, RemovalCause cause) -> unregister(key))
+                .build();
+    }
+
+    public Slice<Long> search(String text, Pageable pageable, Supplier<Slice<Long>> loader) {
+        long offset = pageable.isPaged() ? pageable.getOffset() : -1;
+        int size = pageable.isPaged() ? pageable.getPageSize() : -1;
+        return get(new SearchKey(normalize(text), -1, offset, size), loader);
+    }
+
+    public Slice<Long> searchAfterId(String text, long afterId, int size, Supplier<Slice<Long>> loader) {
+        return get(new SearchKey(normalize(text), afterId, 0, size), loader);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChanged event) {
+        invalidate(event.getPrevious(), event.getCurrent());
+    }
+
+    public void invalidate(Item... items) {
+        Set<String> itemTokens = Arrays.stream(items)
+                .filter(Objects::nonNull)
+                .flatMap(item -> Stream.concat(tokenize(item.getName()), tokenize(item.getDescription())))
+                .collect(Collectors.toSet());
+        invalidations.incrementAndGet();
+        Set<SearchKey> keys = new HashSet<>();
+        Stream.concat(Stream.of(NO_TOKENS), itemTokens.stream().flatMap(this::substrings))
+                .distinct()
+                .map(keysByToken::get)
+                .filter(Objects::nonNull)
+                .forEach(keys::addAll);
+        keys.forEach(key -> cache.asMap().computeIfPresent(key, (k, ids) -> {
+            unregister(k);
+            return null;
+        }));
+        log.debug("Search cache invalidated for tokens {}", itemTokens);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "itemSearch");
+    }
+
+    /**
+     * Loads a missing search and keeps it unless an invalidation ran meanwhile. invalidate counts itself before
+     * looking up keys, so it either is seen here after the put or finds the key registered before the put.
+     */
+    private Slice<Long> get(SearchKey key, Supplier<Slice<Long>> loader) {
+        Slice<Long> cached = cache.getIfPresent(key);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+        long generation = invalidations.get();
+        Slice<Long> ids = loader.get();
+        register(key);
+        cache.put(key, ids);
+        if (invalidations.get() != generation) {
+            cache.asMap().computeIfPresent(key, (k, loaded) -> {
+                unregister(k);
+                return null;
+            });
+        }
+        return ids;
+    }
+
+    private void register(SearchKey key) {
+        keyTokens(key).forEach(token -> keysByToken.compute(token, (t, keys) -> {
+            Set<SearchKey> tokenKeys = Objects.isNull(keys) ? ConcurrentHashMap.newKeySet() : keys;
+            tokenKeys.add(key);
+            return tokenKeys;
+        }));
+    }
+
+    private void unregister(SearchKey key) {
+        keyTokens(key).forEach(token -> keysByToken.computeIfPresent(token, (t, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        }));
+    }
+
+    private List<String> keyTokens(SearchKey key) {
+        List<String> tokens = tokenize(key.text).collect(Collectors.toList());
+        return tokens.isEmpty() ? List.of(NO_TOKENS) : tokens;
+    }
+
+    private Stream<String> substrings(String token) {
+        return IntStream.range(0, token.length())
+                .boxed()
+                .flatMap(from -> IntStream.rangeClosed(from + 1, token.length())
+                        .mapToObj(to -> token.substring(from, to)));
+    }
+
+    private String normalize(String text) {
+        return text.trim().toLowerCase();
+    }
+
+    private Stream<String> tokenize(String text) {
+        if (text == null) {
+            return Stream.empty();
+        }
+        return Arrays.stream(text.toLowerCase().split(TOKEN_DELIMITER))
+                .filter(token -> !token.isEmpty());
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class SearchKey {
+        private final String text;
+        private final long afterId;
+        private final long offset;
+        private final int size;
+    }
+}
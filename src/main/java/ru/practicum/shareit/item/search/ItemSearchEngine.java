@@ -0,0 +1,20 @@
+package ru.practicum.shareit.item.search;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Full-text search over available items. Returns item ids only, items are loaded by the caller.
+ */
+public interface ItemSearchEngine {
+
+    /**
+     * Ids of available items whose name or description contains the text, most relevant first.
+     */
+    Slice<Long> search(String text, Pageable pageable);
+
+    /**
+     * Ids of matching items greater than afterId in ascending order, for keyset pagination.
+     */
+    Slice<Long> searchAfterId(String text, long afterId, int size);
+}
@@ -0,0 +1,41 @@
+package ru.practicum.shareit.item.search;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.item.storage.ItemSearchHit;
+
+/**
+ * Search backed by pg_trgm GIN indexes on lower(name) and lower(description) (see schema-postgresql.sql),
+ * ranked by word similarity with name matches weighted over description matches.
+ * The indexes are maintained by PostgreSQL, so add, update and remove have nothing to do.
+ */
+@Component
+@Profile("postgres")
+@RequiredArgsConstructor
+public class PostgresItemSearchEngine implements ItemSearchEngine {
+
+    private final ItemRepository itemRepository;
+
+    @Override
+    public Slice<Long> search(String text, Pageable pageable) {
+        String query = text.trim().toLowerCase();
+        return itemRepository.searchRanked(query, toPattern(query), pageable)
+                .map(ItemSearchHit::getId);
+    }
+
+    @Override
+    public Slice<Long> searchAfterId(String text, long afterId, int size) {
+        String query = text.trim().toLowerCase();
+        return itemRepository.searchAfterId(toPattern(query), afterId, PageRequest.of(0, size))
+                .map(ItemSearchHit::getId);
+    }
+
+    private String toPattern(String query) {
+        return "%" + query + "%";
+    }
+}
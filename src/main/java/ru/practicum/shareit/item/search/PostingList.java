@@ -0,0 +1,59 @@
+package ru.practicum.shareit.item.search;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Sorted set of ids stored in a primitive array: 8 bytes per posting instead of a boxed Long in a hash set.
+ * Ids are usually appended in ascending order, so adding a new item is an amortized O(1) append.
+ */
+class PostingList {
+
+    private static final long[] EMPTY = new long[0];
+
+    private static final int MIN_CAPACITY = 4;
+
+    private long[] ids = EMPTY;
+
+    private int size;
+
+    boolean add(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position >= 0) {
+            return false;
+        }
+        int insertAt = -position - 1;
+        if (size == ids.length) {
+            ids = Arrays.copyOf(ids, Math.max(MIN_CAPACITY, size + (size >> 1)));
+        }
+        System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+        ids[insertAt] = id;
+        size++;
+        return true;
+    }
+
+    boolean remove(long id) {
+        int position = Arrays.binarySearch(ids, 0, size, id);
+        if (position < 0) {
+            return false;
+        }
+        System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+        size--;
+        if (size == 0) {
+            ids = EMPTY;
+        } else if (ids.length > MIN_CAPACITY && size < ids.length / 4) {
+            ids = Arrays.copyOf(ids, size * 2);
+        }
+        return true;
+    }
+
+    int size() {
+        return size;
+    }
+
+    void forEach(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(ids[i]);
+        }
+    }
+}
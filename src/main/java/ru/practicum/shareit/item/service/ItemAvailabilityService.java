@@ -0,0 +1,217 @@
+package ru.practicum.shareit.item.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.EqualsAndHashCode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.booking.event.BookingChanged;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingSlot;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ItemDoesNotExistException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
+import ru.practicum.shareit.item.event.ItemChanged;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+/**
+ * Computes free periods of an item by merging its WAITING and APPROVED bookings, which are read in one range
+ * query ordered by start. Results are cached per item and period widened to whole minutes, and cut back to the
+ * requested period on every read. An item's entries are evicted after a booking of it is created or changes
+ * status, and after the item is deleted. Cached periods are indexed by item, so eviction touches only that
+ * item's entries.
+ */
+@Slf4j
+@Service
+public class ItemAvailabilityService implements MeterBinder {
+
+    private static final Duration DEFAULT_PERIOD = Duration.ofDays(90);
+
+    private static final Duration MAX_PERIOD = Duration.ofDays(366);
+
+    private final ItemRepository itemRepository;
+
+    private final BookingRepository bookingRepository;
+
+    private final UserExistenceChecker userExistenceChecker;
+
+    private final Cache<AvailabilityKey, List<PeriodDto>> cache;
+
+    private final Map<Long, Set<AvailabilityKey>> keysByItem = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public ItemAvailabilityService(ItemRepository itemRepository,
+                                   BookingRepository bookingRepository,
+                                   UserExistenceChecker userExistenceChecker,
+                                   @Value("${shareit.availability.cache.maximum-size:10000}") long maximumSize,
+                                   @Value("${shareit.availability.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.itemRepository = itemRepository;
+        this.bookingRepository = bookingRepository;
+        this.userExistenceChecker = userExistenceChecker;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .evictionListener((AvailabilityKey key, List<PeriodDto> free, RemovalCause cause) -> unregister(key))
+                .build();
+    }
+
+    public ItemAvailabilityDto getAvailability(Long userId, Long itemId, LocalDateTime from, LocalDateTime to) {
+        log.info("Get availability request for item with id={} from userId={}", itemId, userId);
+        userExistenceChecker.checkUserExists(userId);
+        LocalDateTime start = Objects.isNull(from) ? LocalDateTime.now() : from;
+        LocalDateTime end = Objects.isNull(to) ? start.plus(DEFAULT_PERIOD) : to;
+        if (!start.isBefore(end)) {
+            throw new BadRequestException("Availability period start should be less than end");
+        }
+        if (start.plus(MAX_PERIOD).isBefore(end)) {
+            throw new BadRequestException("Availability period should not be longer than " + MAX_PERIOD.toDays()
+                    + " days");
+        }
+        AvailabilityKey key = new AvailabilityKey(itemId, start.truncatedTo(ChronoUnit.MINUTES), roundUpToMinute(end));
+        List<PeriodDto> free = get(key).stream()
+                .map(period -> clip(period, start, end))
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+        return ItemAvailabilityDto.builder()
+                .itemId(itemId)
+                .from(start)
+                .to(end)
+                .free(free)
+                .build();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingChanged(BookingChanged event) {
+        invalidate(event.getItemId());
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChanged event) {
+        if (event.isDeleted()) {
+            invalidate(event.getItemId());
+        }
+    }
+
+    public void invalidate(Long itemId) {
+        invalidations.incrementAndGet();
+        Set<AvailabilityKey> keys = keysByItem.get(itemId);
+        if (Objects.isNull(keys)) {
+            return;
+        }
+        keys.forEach(key -> cache.asMap().computeIfPresent(key, (k, free) -> {
+            unregister(k);
+            return null;
+        }));
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "itemAvailability");
+    }
+
+    /**
+     * Loads missing free periods and keeps them unless an invalidation ran meanwhile. invalidate counts itself
+     * before looking up keys, so it either is seen here after the put or finds the key registered before the put.
+     */
+    private List<PeriodDto> get(AvailabilityKey key) {
+        List<PeriodDto> cached = cache.getIfPresent(key);
+        if (Objects.nonNull(cached)) {
+            return cached;
+        }
+        long generation = invalidations.get();
+        List<PeriodDto> free = findFreePeriods(key);
+        register(key);
+        cache.put(key, free);
+        if (invalidations.get() != generation) {
+            cache.asMap().computeIfPresent(key, (k, loaded) -> {
+                unregister(k);
+                return null;
+            });
+        }
+        return free;
+    }
+
+    private List<PeriodDto> findFreePeriods(AvailabilityKey key) {
+        if (!itemRepository.existsById(key.itemId)) {
+            throw new ItemDoesNotExistException("Item with id=" + key.itemId + " not exists.");
+        }
+        List<PeriodDto> free = new ArrayList<>();
+        LocalDateTime freeFrom = key.from;
+        for (BookingSlot slot : bookingRepository.searchSlotsForItemBetween(key.itemId,
+                BookingSlot.ACTIVE_STATUSES, key.from, key.to)) {
+            if (slot.getStart().isAfter(freeFrom)) {
+                free.add(new PeriodDto(freeFrom, slot.getStart()));
+            }
+            if (slot.getEnd().isAfter(freeFrom)) {
+                freeFrom = slot.getEnd();
+            }
+        }
+        if (freeFrom.isBefore(key.to)) {
+            free.add(new PeriodDto(freeFrom, key.to));
+        }
+        log.debug("Free periods of item {} between {} and {}: {}", key.itemId, key.from, key.to, free);
+        return Collections.unmodifiableList(free);
+    }
+
+    private void register(AvailabilityKey key) {
+        keysByItem.compute(key.itemId, (itemId, keys) -> {
+            Set<AvailabilityKey> itemKeys = Objects.isNull(keys) ? ConcurrentHashMap.newKeySet() : keys;
+            itemKeys.add(key);
+            return itemKeys;
+        });
+    }
+
+    private void unregister(AvailabilityKey key) {
+        keysByItem.computeIfPresent(key.itemId, (itemId, keys) -> {
+            keys.remove(key);
+            return keys.isEmpty() ? null : keys;
+        });
+    }
+
+    private static LocalDateTime roundUpToMinute(LocalDateTime dateTime) {
+        LocalDateTime truncated = dateTime.truncatedTo(ChronoUnit.MINUTES);
+        return truncated.equals(dateTime) ? truncated : truncated.plusMinutes(1);
+    }
+
+    /**
+     * Part of a free period that lies within the requested one, or null if there is none.
+     */
+    private static PeriodDto clip(PeriodDto period, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime start = period.getStart().isBefore(from) ? from : period.getStart();
+        LocalDateTime end = period.getEnd().isAfter(to) ? to : period.getEnd();
+        return start.isBefore(end) ? new PeriodDto(start, end) : null;
+    }
+
+    @EqualsAndHashCode
+    @RequiredArgsConstructor
+    private static class AvailabilityKey {
+        private final Long itemId;
+        private final LocalDateTime from;
+        private final LocalDateTime to;
+    }
+}
@@ -2,12 +2,16 @@ package ru.practicum.shareit.item.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.context.annotation.Primary;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
-import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
 import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CommentMapper;
 import ru.practicum.shareit.comment.model.Comment;
@@ -18,21 +22,28 @@ import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.item.dto.ItemBookingDto;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.event.ItemChanged;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.service.ProposalService;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.event.UserDeleted;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import javax.persistence.EntityNotFoundException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Slf4j
@@ -41,6 +52,10 @@ import java.util.stream.Collectors;
 @Service
 public class ItemService {
 
+    private static final int DEFAULT_SEARCH_PAGE_SIZE = 10;
+
+    private static final int COMMENTS_PREVIEW_SIZE = 10;
+
     private final ItemRepository itemRepository;
 
     private final UserRepository userRepository;
@@ -55,22 +70,34 @@ public class ItemService {
 
     private final UserMapper userMapper;
 
+    private final ItemSearchEngine itemSearchEngine;
+
+    private final ItemSearchCache itemSearchCache;
+
+    private final UserExistenceChecker userExistenceChecker;
+
+    private final BookingTimeline bookingTimeline;
+
+    private final ProposalService proposalService;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     public ItemDto createItem(Long userId, ItemDto itemDto) {
         log.info("Create request for itemDto={} from userId={} ", itemDto, userId);
         checkItemIsAvailable(itemDto);
-        checkUserExists(userId);
-        Optional<User> user = userRepository.findById(userId);
-        itemDto.setOwner(userMapper.toDto(user.orElse(null)));
+        itemDto.setOwner(userMapper.toDto(findUser(userId)));
         Item item = itemRepository.save(itemMapper.toItem(itemDto));
-        return itemMapper.toDto(item);
+        proposalService.onItemSaved(item);
+        ItemDto savedItemDto = itemMapper.toDto(item);
+        eventPublisher.publishEvent(ItemChanged.created(item, savedItemDto));
+        return savedItemDto;
     }
 
     public ItemDto updateItem(Long userId, Long id, Map<String, Object> updates) {
         log.info("Update request for item with id={} from userId={} ", id, userId);
-        checkUserExists(userId);
-        checkItemExists(id);
-        checkItemOwnerId(userId, id);
-        Item item = itemMapper.toItem(this.getItem(userId, id));
+        Item item = findItem(id);
+        checkItemOwnerId(userId, item);
+        Item previous = item.toBuilder().build();
         if (updates.containsKey("name")) {
             item.setName(String.valueOf(updates.get("name")));
             log.debug("Name updated");
@@ -84,97 +111,94 @@ public class ItemService {
             log.debug("Available updated");
         }
         itemRepository.save(item);
-        return itemMapper.toDto(item);
+        proposalService.onItemSaved(item);
+        ItemDto updatedItemDto = itemMapper.toDto(item);
+        eventPublisher.publishEvent(ItemChanged.updated(previous, item, updatedItemDto));
+        return updatedItemDto;
     }
 
     public ItemDto getItem(Long userId, Long id) {
         log.info("Get request getItemById from userId={} for item with id={}", userId, id);
-        checkUserExists(userId);
-        checkItemExists(id);
-        Item item = itemRepository.findById(id).get();
+        userExistenceChecker.checkUserExists(userId);
+        Item item = itemRepository.findItemCardById(id)
+                .orElseThrow(() -> new ItemDoesNotExistException("Item with id=" + id + " not exists."));
         ItemDto itemDto = itemMapper.toDto(item);
-        log.debug("Get request getItemById - map comments to ItemDto");
-        itemDto.setComments(commentMapper.map(item.getItemComments()));
-        if (Objects.equals(userId, item.getOwner().getId())) {
-            log.debug("Get request getItemById - setLastBooking");
-            itemDto.setLastBooking(getLastBookingForItem(id));
-            log.debug("Get request getItemById - setNextBooking");
-            itemDto.setNextBooking(getFutureBookingFotItem(id));
-        }
+        log.debug("Get request getItemById - map latest comments to ItemDto");
+        itemDto.setComments(commentMapper.map(commentRepository
+                .findByItemIdOrderByCreatedDescIdDesc(id, PageRequest.of(0, COMMENTS_PREVIEW_SIZE))
+                .getContent()));
+        setLastAndNextBookings(userId, List.of(itemDto));
         return itemDto;
     }
 
     public List<ItemDto> getItems(Long userId, Pageable pageable) {
-        checkUserExists(userId);
+        userExistenceChecker.checkUserExists(userId);
         List<ItemDto> itemsDto = itemRepository.findByOwnerId(userId, pageable)
                 .getContent()
                 .stream()
                 .map(itemMapper::toDto)
                 .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
-        for (ItemDto itemDto : itemsDto) {
-            Long itemDtoId = itemDto.getId();
-            if (Objects.equals(userId, itemDto.getOwner().getId())) {
-                itemDto.setLastBooking(getLastBookingForItem(itemDtoId));
-                itemDto.setNextBooking(getFutureBookingFotItem(itemDtoId));
-            }
-        }
+        setLastAndNextBookings(userId, itemsDto);
         return itemsDto;
     }
 
     public ItemDto deleteItem(Long userId, Long id) {
         log.info("Delete request for itemId={} from user with id={}", id, userId);
-        checkItemExists(id);
-        Item item = itemRepository.findById(id).get();
+        Item item = findItem(id);
         ItemDto itemDto = itemMapper.toDto(item);
         itemRepository.delete(item);
+        eventPublisher.publishEvent(ItemChanged.deleted(item, itemDto));
         log.debug("Item deleted");
         return itemDto;
     }
 
+    /**
+     * Items of a deleted user go away with the user by the foreign key; they are read here while they still
+     * exist, and announced as deleted after the user deletion commits.
+     */
+    @EventListener
+    public void onUserDeleted(UserDeleted event) {
+        for (Item item : itemRepository.findByOwnerId(event.getUserId(), Pageable.unpaged()).getContent()) {
+            eventPublisher.publishEvent(ItemChanged.deleted(item, itemMapper.toDto(item)));
+        }
+    }
+
     public List<ItemDto> searchItem(Long userId, String keyWord, Integer from, Integer size) {
+        return searchItem(userId, keyWord, from, size, null);
+    }
+
+    public List<ItemDto> searchItem(Long userId, String keyWord, Integer from, Integer size, Long afterId) {
         log.info("Get request for item owned by user with id={} and label={}", userId, keyWord);
         if (keyWord.trim().isEmpty()) {
             return new ArrayList<>();
         }
-        checkUserExists(userId);
+        userExistenceChecker.checkUserExists(userId);
 
-        String query = "%" + keyWord.trim().toLowerCase() + "%";
-
-        int firstId = Objects.isNull(from) ? 0 : from;
-        List<ItemDto> itemsDto = new ArrayList<>();
-        if (Objects.isNull(size)) {
-            itemsDto.addAll(itemRepository.findByNameOrDescription(query)
-                    .stream()
-                    .map(itemMapper::toDto)
-                    .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList)));
+        String text = keyWord.trim();
+        Slice<Long> itemIds;
+        if (Objects.nonNull(afterId)) {
+            int pageSize = Objects.isNull(size) ? DEFAULT_SEARCH_PAGE_SIZE : size;
+            itemIds = itemSearchCache.searchAfterId(text, afterId, pageSize,
+                    () -> itemSearchEngine.searchAfterId(text, afterId, pageSize));
         } else {
-            List<Item> items = itemRepository.findByNameOrDescription(query);
-            int lastId = Math.min((from + size - 1), items.size());
-            itemsDto.addAll(items
-                    .stream()
-                    .map(itemMapper::toDto)
-                    .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList))
-                    .subList(firstId, lastId));
-        }
-        for (ItemDto itemDto : itemsDto) {
-            Long itemDtoId = itemDto.getId();
-            if (Objects.equals(userId, itemDto.getOwner().getId())) {
-                itemDto.setLastBooking(getLastBookingForItem(itemDtoId));
-                itemDto.setNextBooking(getFutureBookingFotItem(itemDtoId));
-            }
+            Pageable pageable = Objects.isNull(size)
+                    ? Pageable.unpaged()
+                    : PageRequest.of((Objects.isNull(from) ? 0 : from) / size, size);
+            itemIds = itemSearchCache.search(text, pageable, () -> itemSearchEngine.search(text, pageable));
         }
+        List<ItemDto> itemsDto = findItemsInOrder(itemIds.getContent())
+                .stream()
+                .map(itemMapper::toDto)
+                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+        setLastAndNextBookings(userId, itemsDto);
         return itemsDto;
     }
 
     public CommentDto saveComment(Long itemId, Long userId, CommentDto commentDto) {
         log.info("Create comment request for itemId={} from userId={} and comment={}", itemId, userId, commentDto);
-        checkUserExists(userId);
+        User author = findUser(userId);
         checkCommentEmpty(commentDto);
-        checkItemExists(itemId);
-        Optional<User> user = userRepository.findById(userId);
-        User author = user.orElse(null);
-        Optional<Item> itemOptional = itemRepository.findById(itemId);
-        Item item = itemOptional.orElse(null);
+        Item item = findItem(itemId);
         if (!bookingRepository.existsByItemIdAndBookerIdAndStatusAndEndIsBefore
                 (itemId, userId, BookingStatus.APPROVED, LocalDateTime.now())) {
             throw new BadRequestException
@@ -189,36 +213,51 @@ public class ItemService {
         return commentMapper.toDto(comment);
     }
 
-    private ItemBookingDto getLastBookingForItem(Long itemId) {
-        List<Booking> bookings = bookingRepository.searchByItemIdAndEndBeforeDate(itemId,
-                LocalDateTime.now(), BookingStatus.APPROVED);
-        log.debug("Bookings for itemId= {} in the past = {}", itemId, bookings.size());
-        if (bookings.isEmpty()) {
-            return null;
+    /**
+     * Comments of the item, newest first, starting right after the given one, or from the newest if it is null.
+     */
+    public Slice<CommentDto> getComments(Long userId, Long itemId, Cursor after, int size) {
+        log.info("Get request for comments of item with id={} from userId={} after {}", itemId, userId, after);
+        userExistenceChecker.checkUserExists(userId);
+        if (!itemRepository.existsById(itemId)) {
+            throw new ItemDoesNotExistException("Item with id=" + itemId + " not exists.");
         }
-        Comparator<Booking> byDateEnd = Comparator.comparing(Booking::getEnd).reversed();
-        List<Booking> bookingsSorted = bookings.stream()
-                .sorted(byDateEnd)
-                .limit(1)
-                .collect(Collectors.toList());
-        Booking booking = bookingsSorted.get(0);
-        return new ItemBookingDto(booking.getId(), booking.getBooker().getId());
+        Pageable pageable = PageRequest.of(0, size);
+        Slice<Comment> comments = Objects.isNull(after)
+                ? commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, pageable)
+                : commentRepository.findByItemIdAfter(itemId, after.getTimestamp(), after.getId(), pageable);
+        return comments.map(commentMapper::toDto);
     }
 
-    private ItemBookingDto getFutureBookingFotItem(Long itemId) {
-        List<Booking> bookings = bookingRepository.searchByItemIdAndStartAfterDate(itemId,
-                LocalDateTime.now(), BookingStatus.APPROVED);
-        log.debug("Bookings for itemId={} in the future = {}", itemId, bookings.size());
-        if (bookings.isEmpty()) {
-            return null;
+    private List<Item> findItemsInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
         }
-        Comparator<Booking> byDateStart = Comparator.comparing(Booking::getStart);
-        List<Booking> bookingsOrdered = bookings.stream()
-                .sorted(byDateStart)
-                .limit(1)
+        Map<Long, Item> itemsById = itemRepository.findByIdIn(ids)
+                .stream()
+                .collect(Collectors.toMap(Item::getId, Function.identity()));
+        return ids.stream()
+                .map(itemsById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+    }
+
+    private void setLastAndNextBookings(Long userId, List<ItemDto> itemsDto) {
+        List<Long> ownItemIds = itemsDto.stream()
+                .filter(itemDto -> Objects.equals(userId, itemDto.getOwner().getId()))
+                .map(ItemDto::getId)
                 .collect(Collectors.toList());
-        Booking booking = bookingsOrdered.get(0);
-        return new ItemBookingDto(booking.getId(), booking.getBooker().getId());
+        if (ownItemIds.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        Map<Long, ItemBookingDto> lastBookings = bookingTimeline.findLastBookings(ownItemIds, now);
+        Map<Long, ItemBookingDto> nextBookings = bookingTimeline.findNextBookings(ownItemIds, now);
+        log.debug("Bookings for items {}: last = {}, next = {}", ownItemIds, lastBookings.size(), nextBookings.size());
+        for (ItemDto itemDto : itemsDto) {
+            itemDto.setLastBooking(lastBookings.get(itemDto.getId()));
+            itemDto.setNextBooking(nextBookings.get(itemDto.getId()));
+        }
     }
 
     public Item map(Long id) {
@@ -227,17 +266,17 @@ public class ItemService {
         return item.orElseThrow(() -> new EntityNotFoundException("item with id: " + id + " doesn't exists"));
     }
 
-    public List<ItemDto> getItemsDtoByRequestId(Long requestId) {
-        return itemRepository.findByRequestIdOrderById(requestId)
-                .stream()
-                .map(ItemMapper.itemMapper::toDto)
-                .collect(Collectors.toList());
+    private User findUser(Long id) {
+        return userRepository.findById(id)
+                .orElseThrow(() -> new ItemDoesNotExistException("User with id=" + id + " not exists."));
     }
 
-    private void checkUserExists(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ItemDoesNotExistException("User with id=" + id + " not exists.");
-        }
+    /**
+     * Item with its owner, which the owner check, the response and the change event all read.
+     */
+    private Item findItem(Long id) {
+        return itemRepository.findItemCardById(id)
+                .orElseThrow(() -> new ItemDoesNotExistException("Item with id=" + id + " not exists."));
     }
 
     private void checkItemIsAvailable(ItemDto item) {
@@ -246,21 +285,16 @@ public class ItemService {
         }
     }
 
-    private void checkItemExists(Long id) {
-        if (!itemRepository.existsById(id)) {
-            throw new ItemDoesNotExistException("Item with id=" + id + " not exists.");
-        }
-    }
-
     private void checkCommentEmpty(CommentDto commentDto) {
         if (commentDto.getText().isEmpty()) {
             throw new BadRequestException("Comment should not be empty");
         }
     }
 
-    private void checkItemOwnerId(Long userId, Long id) {
-        if (!Objects.equals(userId, itemRepository.findById(id).get().getOwner().getId())) {
-            throw new NotOwnerException("User with id=" + userId + "  is not owner of item with id=" + id);
+    private void checkItemOwnerId(Long userId, Item item) {
+        if (!Objects.equals(userId, item.getOwner().getId())) {
+            userExistenceChecker.checkUserExists(userId);
+            throw new NotOwnerException("User with id=" + userId + "  is not owner of item with id=" + item.getId());
         }
     }
 }
\ No newline at end of file
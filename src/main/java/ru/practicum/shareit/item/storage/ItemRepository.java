@@ -1,23 +1,39 @@
 package ru.practicum.shareit.item.storage;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
-import org.springframework.lang.Nullable;
 import ru.practicum.shareit.item.model.Item;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 public interface ItemRepository extends JpaRepository<Item, Long> {
     //    List<Item> findByOwnerId(Long id);
 
-    @Query("select i from Item i where  i.available = true  and "
-            + "(lower(i.name) like lower(:text) or lower(i.description) like lower(:text))")
-    List<Item> findByNameOrDescription(@Nullable String text);
+    @EntityGraph(Item.OWNER_GRAPH)
+    Optional<Item> findItemCardById(Long id);
 
-//    @Query("select i from Item i where i.owner.id = :ownerId order by i.id  ")
-    Page<Item> findByOwnerId(long ownerId, Pageable pageable);
+    @EntityGraph(Item.OWNER_GRAPH)
+    List<Item> findByIdIn(Collection<Long> ids);
+
+    Slice<Item> findByAvailableTrue(Pageable pageable);
+
+    @Query(nativeQuery = true, value = "select i.id as id from items i where i.is_available = true "
+            + "and (lower(i.name) like :pattern or lower(i.description) like :pattern) "
+            + "order by greatest(2 * word_similarity(:text, lower(i.name)), "
+            + "word_similarity(:text, lower(i.description))) desc, i.id")
+    Slice<ItemSearchHit> searchRanked(String text, String pattern, Pageable pageable);
 
-    List<Item> findByRequestIdOrderById(Long requestId);
+    @Query(nativeQuery = true, value = "select i.id as id from items i where i.is_available = true and i.id > :afterId "
+            + "and (lower(i.name) like :pattern or lower(i.description) like :pattern) order by i.id")
+    Slice<ItemSearchHit> searchAfterId(String pattern, long afterId, Pageable pageable);
+
+//    @Query("select i from Item i where i.owner.id = :ownerId order by i.id  ")
+    @EntityGraph(Item.OWNER_GRAPH)
+    @Query("select i from Item i where i.owner.id = :ownerId")
+    Slice<Item> findByOwnerId(long ownerId, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,37 @@
+package ru.practicum.shareit.pagination;
+
+import org.springframework.data.domain.Slice;
+import org.springframework.http.ResponseEntity;
+
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Function;
+
+/**
+ * Request and response side of cursor listings: the cursor request parameter and the {@value #NEXT_CURSOR_HEADER}
+ * header pointing after the last row of a page. The header is absent on the last page.
+ */
+public final class CursorPages {
+
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
+    private CursorPages() {
+    }
+
+    /**
+     * Cursor to continue after, or null to start from the first row when the parameter is absent or empty.
+     */
+    public static Cursor decode(String cursor) {
+        return Objects.isNull(cursor) || cursor.isEmpty() ? null : Cursor.decode(cursor);
+    }
+
+    public static <T> ResponseEntity<List<T>> toResponse(Slice<T> page, Function<T, Cursor> cursorOf) {
+        List<T> content = page.getContent();
+        if (!page.hasNext() || content.isEmpty()) {
+            return ResponseEntity.ok(content);
+        }
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, cursorOf.apply(content.get(content.size() - 1)).encode())
+                .body(content);
+    }
+}
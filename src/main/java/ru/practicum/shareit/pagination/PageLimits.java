@@ -0,0 +1,12 @@
+package ru.practicum.shareit.pagination;
+
+/**
+ * Bounds of the size parameter shared by all listings, so one request can't read an unbounded page.
+ */
+public final class PageLimits {
+
+    public static final int MAX_SIZE = 100;
+
+    private PageLimits() {
+    }
+}
@@ -1,9 +1,11 @@
 package ru.practicum.shareit.request.controller;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
 import org.springframework.validation.annotation.Validated;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -13,14 +15,19 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import ru.practicum.shareit.pagination.PageLimits;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
 import ru.practicum.shareit.request.service.RequestService;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Max;
 import javax.validation.constraints.Positive;
 import javax.validation.constraints.PositiveOrZero;
+import java.util.Iterator;
 import java.util.List;
+import java.util.stream.Stream;
 
 @RestController
 @RequestMapping("/requests")
@@ -31,6 +38,7 @@ public class RequestController {
     private static final String USER_ID_HEADER = "X-Sharer-User-Id";
     private static final String REQUEST_DATE_FIELD_NAME = "created";
     private final RequestService requestService;
+    private final ObjectMapper objectMapper;
 
     @PostMapping()
     public RequestDto create(@RequestHeader(USER_ID_HEADER) Long userId,
@@ -45,15 +53,36 @@ public class RequestController {
     }
 
     @GetMapping("")
-    public List<RequestWithProposalsDto> getRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
-        return requestService.getRequests(userId);
+    public List<RequestWithProposalsDto> getRequests(
+            @RequestHeader(USER_ID_HEADER) Long userId,
+            @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
+            @RequestParam(defaultValue = "100") @Positive @Max(PageLimits.MAX_SIZE) Integer size) {
+        return requestService.getRequests(userId, PageRequest.of(from / size, size));
+    }
+
+    /**
+     * Every request of the user as newline-delimited JSON, written while it is read from the database,
+     * for clients that need the whole history rather than a page.
+     */
+    @GetMapping(value = "", params = "stream=true", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public StreamingResponseBody streamRequests(@RequestHeader(USER_ID_HEADER) Long userId) {
+        Stream<RequestWithProposalsDto> requests = requestService.streamRequests(userId);
+        return out -> {
+            try (requests) {
+                Iterator<RequestWithProposalsDto> iterator = requests.iterator();
+                while (iterator.hasNext()) {
+                    out.write(objectMapper.writeValueAsBytes(iterator.next()));
+                    out.write('\n');
+                }
+            }
+        };
     }
 
     @GetMapping("/all")
     public List<RequestWithProposalsDto> getRequestsPageable(
             @RequestHeader(USER_ID_HEADER) Long userId,
             @RequestParam(defaultValue = "0") @PositiveOrZero Integer from,
-            @RequestParam(defaultValue = "10") @Positive Integer size) {
+            @RequestParam(defaultValue = "10") @Positive @Max(PageLimits.MAX_SIZE) Integer size) {
         Pageable pageable = PageRequest.of(from / size, size,
                 Sort.by(Sort.Direction.DESC, REQUEST_DATE_FIELD_NAME));
         return requestService.getPartOfRequests(userId, pageable);
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.request.dto;
+
+import org.mapstruct.Mapper;
+import org.mapstruct.Mapping;
+import org.mapstruct.ReportingPolicy;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.model.Proposal;
+
+@Mapper(unmappedTargetPolicy = ReportingPolicy.IGNORE, componentModel = "spring")
+public interface ProposalMapper {
+
+    @Mapping(source = "itemId", target = "id")
+    @Mapping(source = "itemName", target = "name")
+    @Mapping(source = "itemDescription", target = "description")
+    @Mapping(source = "itemAvailable", target = "available")
+    @Mapping(source = "request.id", target = "requestId")
+    ItemDto toItemDto(Proposal proposal);
+}
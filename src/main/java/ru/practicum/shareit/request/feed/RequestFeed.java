@@ -0,0 +1,358 @@
+package ru.practicum.shareit.request.feed;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.event.ItemChanged;
+import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChanged;
+import ru.practicum.shareit.user.event.UserDeleted;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * The most recent requests with their proposed items, newest first, in a fixed-size ring, so the first pages of
+ * /requests/all are served from memory. The feed is loaded from the database on first use and then maintained
+ * on request creation, on changes of proposed items and on changes of the users shown in it. Changes made
+ * around the application, directly in the database, are picked up by reloading the feed once it is older than
+ * its time to live. Stored requests are never modified, a change replaces the stored object.
+ */
+@Slf4j
+@Component
+public class RequestFeed implements MeterBinder {
+
+    private final RequestWithProposalsDto[] ring;
+
+    private final Map<Long, Integer> slotByRequestId = new HashMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final long ttlNanos;
+
+    private final Ticker ticker;
+
+    private long loadedAt;
+
+    private int head = -1;
+
+    private int size;
+
+    private boolean loaded;
+
+    /**
+     * Whether older requests exist that are not in the ring, so a page running past its end can't be served.
+     */
+    private boolean truncated;
+
+    private long version;
+
+    @Autowired
+    public RequestFeed(@Value("${shareit.requests.feed.capacity:1000}") int capacity,
+                       @Value("${shareit.requests.feed.ttl-seconds:300}") long ttlSeconds) {
+        this(capacity, Duration.ofSeconds(ttlSeconds), Ticker.systemTicker());
+    }
+
+    public RequestFeed(int capacity, Duration ttl, Ticker ticker) {
+        this.ring = new RequestWithProposalsDto[capacity];
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    public int getCapacity() {
+        return ring.length;
+    }
+
+    /**
+     * Number of changes seen so far. A load is accepted only if no change happened since the version it was
+     * read at, so a request saved while the database was being read is not lost.
+     */
+    public long getVersion() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Whether the feed holds requests loaded within its time to live.
+     */
+    public boolean isLoaded() {
+        lock.readLock().lock();
+        try {
+            return isFresh();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public void load(List<RequestWithProposalsDto> newestFirst, boolean hasOlder, long readAtVersion) {
+        lock.writeLock().lock();
+        try {
+            if (readAtVersion != version) {
+                log.debug("Request feed load skipped, changed since version {}", readAtVersion);
+                return;
+            }
+            reset();
+            for (int i = newestFirst.size() - 1; i >= 0; i--) {
+                push(newestFirst.get(i));
+            }
+            truncated = truncated || hasOlder;
+            loaded = true;
+            loadedAt = ticker.read();
+            log.debug("Request feed loaded with {} requests", size);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void onRequestSaved(RequestWithProposalsDto request) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (loaded) {
+                push(request);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onItemChanged(ItemChanged event) {
+        if (event.isDeleted()) {
+            onItemDeleted(event.getItemDto());
+        } else {
+            onItemSaved(event.getItemDto());
+        }
+    }
+
+    public void onItemSaved(ItemDto item) {
+        if (Objects.isNull(item.getRequestId())) {
+            return;
+        }
+        updateItems(item.getRequestId(), items -> {
+            List<ItemDto> updated = new ArrayList<>(items);
+            updated.removeIf(proposed -> proposed.getId() == item.getId());
+            updated.add(item);
+            updated.sort((left, right) -> Long.compare(left.getId(), right.getId()));
+            return updated;
+        });
+    }
+
+    public void onItemDeleted(ItemDto item) {
+        if (Objects.isNull(item.getRequestId())) {
+            return;
+        }
+        updateItems(item.getRequestId(), items -> {
+            List<ItemDto> updated = new ArrayList<>(items);
+            updated.removeIf(proposed -> proposed.getId() == item.getId());
+            return updated;
+        });
+    }
+
+    /**
+     * Shows the changed name and email of a user as requester and as owner of proposed items.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserChanged(UserChanged event) {
+        UserDto user = event.getUser();
+        replaceRequests(request -> {
+            UserDto requester = Objects.equals(request.getRequester().getId(), user.getId())
+                    ? user : request.getRequester();
+            return copy(request, requester, itemsOf(request).stream()
+                    .map(item -> isOwnedBy(item, user.getId()) ? item.toBuilder().owner(user).build() : item)
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    /**
+     * Drops the requests of a deleted user and the items the user proposed to other requests.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onUserDeleted(UserDeleted event) {
+        long userId = event.getUserId();
+        replaceRequests(request -> Objects.equals(request.getRequester().getId(), userId)
+                ? null
+                : copy(request, request.getRequester(), itemsOf(request).stream()
+                        .filter(item -> !isOwnedBy(item, userId))
+                        .collect(Collectors.toList())));
+    }
+
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            version++;
+            reset();
+            log.debug("Request feed cleared");
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Page of requests created by users other than userId, newest first, or empty if the feed is not loaded
+     * or the page reaches past the requests it holds.
+     */
+    public Optional<List<RequestWithProposalsDto>> findCreatedByOthers(long userId, long from, int pageSize) {
+        lock.readLock().lock();
+        try {
+            if (!isFresh()) {
+                misses.increment();
+                return Optional.empty();
+            }
+            List<RequestWithProposalsDto> page = new ArrayList<>(pageSize);
+            long skipped = 0;
+            for (int i = 0; i < size && page.size() < pageSize; i++) {
+                RequestWithProposalsDto request = ring[slot(i)];
+                if (Objects.equals(request.getRequester().getId(), userId)) {
+                    continue;
+                }
+                if (skipped < from) {
+                    skipped++;
+                } else {
+                    page.add(request);
+                }
+            }
+            if (page.size() < pageSize && truncated) {
+                misses.increment();
+                return Optional.empty();
+            }
+            hits.increment();
+            return Optional.of(List.copyOf(page));
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        Gauge.builder("shareit.requests.feed.size", this, feed -> feed.size)
+                .description("Requests held in the request feed")
+                .register(registry);
+        FunctionCounter.builder("shareit.requests.feed.reads", hits, LongAdder::sum)
+                .tag("result", "hit")
+                .description("Request feed pages served from memory")
+                .register(registry);
+        FunctionCounter.builder("shareit.requests.feed.reads", misses, LongAdder::sum)
+                .tag("result", "miss")
+                .description("Request feed pages left to the database")
+                .register(registry);
+    }
+
+    private void updateItems(Long requestId, Function<List<ItemDto>, List<ItemDto>> update) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            Integer slot = slotByRequestId.get(requestId);
+            if (Objects.isNull(slot)) {
+                return;
+            }
+            RequestWithProposalsDto request = ring[slot];
+            ring[slot] = copy(request, request.getRequester(), update.apply(itemsOf(request)));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Replaces every stored request by the result of the update, or drops it when the update returns null.
+     * Dropping keeps the order of the remaining requests, and the feed still holds every request newer than
+     * its oldest one.
+     */
+    private void replaceRequests(Function<RequestWithProposalsDto, RequestWithProposalsDto> update) {
+        lock.writeLock().lock();
+        try {
+            version++;
+            if (!loaded) {
+                return;
+            }
+            List<RequestWithProposalsDto> oldestFirst = new ArrayList<>(size);
+            for (int i = size - 1; i >= 0; i--) {
+                Optional.ofNullable(update.apply(ring[slot(i)])).ifPresent(oldestFirst::add);
+            }
+            boolean wasTruncated = truncated;
+            long wasLoadedAt = loadedAt;
+            reset();
+            oldestFirst.forEach(this::push);
+            truncated = wasTruncated;
+            loaded = true;
+            loadedAt = wasLoadedAt;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private boolean isFresh() {
+        return loaded && ticker.read() - loadedAt < ttlNanos;
+    }
+
+    private static boolean isOwnedBy(ItemDto item, long userId) {
+        return Objects.nonNull(item.getOwner()) && Objects.equals(item.getOwner().getId(), userId);
+    }
+
+    private static List<ItemDto> itemsOf(RequestWithProposalsDto request) {
+        return Optional.ofNullable(request.getItems()).orElse(List.of());
+    }
+
+    private static RequestWithProposalsDto copy(RequestWithProposalsDto request, UserDto requester,
+                                                List<ItemDto> items) {
+        RequestWithProposalsDto copy = new RequestWithProposalsDto(request.getId(), request.getDescription(),
+                requester, request.getCreated());
+        copy.setItems(List.copyOf(items));
+        return copy;
+    }
+
+    private void push(RequestWithProposalsDto request) {
+        head = (head + 1) % ring.length;
+        RequestWithProposalsDto evicted = ring[head];
+        if (Objects.nonNull(evicted)) {
+            slotByRequestId.remove(evicted.getId());
+            truncated = true;
+        } else {
+            size++;
+        }
+        ring[head] = request;
+        slotByRequestId.put(request.getId(), head);
+    }
+
+    private int slot(int age) {
+        return (head - age + ring.length) % ring.length;
+    }
+
+    private void reset() {
+        Arrays.fill(ring, null);
+        slotByRequestId.clear();
+        head = -1;
+        size = 0;
+        loaded = false;
+        truncated = false;
+    }
+}
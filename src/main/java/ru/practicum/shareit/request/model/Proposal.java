@@ -2,28 +2,43 @@ package ru.practicum.shareit.request.model;
 
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import lombok.AllArgsConstructor;
+import lombok.Builder;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import ru.practicum.shareit.user.model.User;
 
-import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Entity;
+import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.Table;
 
+/**
+ * Item proposed for a request, with a copy of the item fields shown on request pages, so those pages are built
+ * from proposals alone. Kept in step with the item by ProposalService.
+ */
 @Entity
 @Getter
 @Setter
 @Table(name = "proposals")
+@NamedEntityGraph(name = Proposal.OWNER_GRAPH, attributeNodes = @NamedAttributeNode("owner"))
 @AllArgsConstructor
 @NoArgsConstructor
+@Builder(toBuilder = true)
 public class Proposal {
 
+    /**
+     * Request pages: proposal with the owner of the proposed item.
+     */
+    public static final String OWNER_GRAPH = "Proposal.owner";
+
     @Id
     @Column(nullable = false, updatable = false)
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -32,11 +47,25 @@ public class Proposal {
     @Column(nullable = false)
     private Long requesterId;
 
-    @Column(nullable = false)
+    @Column(nullable = false, updatable = false)
     private Long itemId;
 
-    @ManyToOne(cascade = CascadeType.ALL)
-    @JoinColumn(name = "request_id")
+    @Column(nullable = false)
+    private String itemName;
+
+    @Column(nullable = false)
+    private String itemDescription;
+
+    @Column(nullable = false)
+    private Boolean itemAvailable;
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "request_id", nullable = false, updatable = false)
     @JsonIgnore
     private Request request;
-}
\ No newline at end of file
+
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "owner_id", nullable = false)
+    @JsonIgnore
+    private User owner;
+}
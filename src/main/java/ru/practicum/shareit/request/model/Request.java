@@ -15,6 +15,8 @@ import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
 import javax.persistence.ManyToOne;
+import javax.persistence.NamedAttributeNode;
+import javax.persistence.NamedEntityGraph;
 import javax.persistence.OneToMany;
 import javax.persistence.Table;
 import java.time.LocalDateTime;
@@ -24,11 +26,17 @@ import java.util.Set;
 @Getter
 @Setter
 @Table(name = "requests")
+@NamedEntityGraph(name = Request.REQUESTER_GRAPH, attributeNodes = @NamedAttributeNode("requester"))
 @AllArgsConstructor
 @NoArgsConstructor
 @Builder(toBuilder = true)
 public class Request {
 
+    /**
+     * Request listings: request with its requester.
+     */
+    public static final String REQUESTER_GRAPH = "Request.requester";
+
     @Id
     @Column(nullable = false, updatable = false)
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -0,0 +1,21 @@
+package ru.practicum.shareit.request.repository;
+
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import ru.practicum.shareit.request.model.Proposal;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ProposalRepository extends JpaRepository<Proposal, Long> {
+
+    @EntityGraph(Proposal.OWNER_GRAPH)
+    @Query("select p from Proposal p where p.request.id in :requestIds order by p.itemId")
+    List<Proposal> findByRequestIdInOrderByItemId(Collection<Long> requestIds);
+
+    Optional<Proposal> findByItemId(Long itemId);
+}
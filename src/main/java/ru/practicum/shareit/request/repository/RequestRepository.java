@@ -1,20 +1,32 @@
 package ru.practicum.shareit.request.repository;
 
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import ru.practicum.shareit.request.model.Request;
 
-import java.util.List;
+import java.time.LocalDateTime;
 
 @Repository
 public interface RequestRepository extends JpaRepository<Request, Long>, JpaSpecificationExecutor<Request> {
 
+    @EntityGraph(Request.REQUESTER_GRAPH)
     @Query("select r from Request r where r.requester.id <> :id order by r.created desc")
-    Page<Request> getAllCreatedByOtherOrderByCreatedDesc(Long id, Pageable page);
+    Slice<Request> getAllCreatedByOtherOrderByCreatedDesc(Long id, Pageable page);
 
-    List<Request> getAllByRequesterIdOrderByCreatedDesc(Long requesterId);
+    @EntityGraph(Request.REQUESTER_GRAPH)
+    Slice<Request> findAllByOrderByCreatedDescIdDesc(Pageable pageable);
+
+    @EntityGraph(Request.REQUESTER_GRAPH)
+    @Query("select r from Request r where r.requester.id = :requesterId order by r.created desc, r.id desc")
+    Slice<Request> getAllByRequesterIdOrderByCreatedDescIdDesc(Long requesterId, Pageable pageable);
+
+    @EntityGraph(Request.REQUESTER_GRAPH)
+    @Query("select r from Request r where r.requester.id = :requesterId "
+            + "and (r.created < :created or (r.created = :created and r.id < :id)) order by r.created desc, r.id desc")
+    Slice<Request> findByRequesterIdAfter(Long requesterId, LocalDateTime created, Long id, Pageable pageable);
 }
\ No newline at end of file
@@ -0,0 +1,72 @@
+package ru.practicum.shareit.request.service;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ProposalMapper;
+import ru.practicum.shareit.request.model.Proposal;
+import ru.practicum.shareit.request.repository.ProposalRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.stream.Collectors;
+
+/**
+ * Maintains proposals, the copy of items created against requests that request pages are read from.
+ * A proposal goes away together with its item or request by the foreign keys on the proposals table.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ProposalService {
+
+    private final ProposalRepository proposalRepository;
+
+    private final RequestRepository requestRepository;
+
+    private final ProposalMapper proposalMapper;
+
+    public void onItemSaved(Item item) {
+        if (Objects.isNull(item.getRequestId())) {
+            return;
+        }
+        Optional<Proposal> found = proposalRepository.findByItemId(item.getId())
+                .or(() -> requestRepository.findById(item.getRequestId())
+                        .map(request -> Proposal.builder()
+                                .itemId(item.getId())
+                                .request(request)
+                                .requesterId(request.getRequester().getId())
+                                .build()));
+        if (found.isEmpty()) {
+            log.warn("Item with id={} proposed for request with id={} which doesn't exist", item.getId(),
+                    item.getRequestId());
+            return;
+        }
+        Proposal proposal = found.get();
+        proposal.setItemName(item.getName());
+        proposal.setItemDescription(item.getDescription());
+        proposal.setItemAvailable(item.getAvailable());
+        proposal.setOwner(item.getOwner());
+        proposalRepository.save(proposal);
+        log.debug("Proposal for item with id={} saved", item.getId());
+    }
+
+    /**
+     * Proposed items of several requests in one query, grouped by request id. Requests without proposals are absent.
+     */
+    public Map<Long, List<ItemDto>> getItemsByRequestIds(Collection<Long> requestIds) {
+        if (requestIds.isEmpty()) {
+            return Map.of();
+        }
+        return proposalRepository.findByRequestIdInOrderByItemId(requestIds)
+                .stream()
+                .map(proposalMapper::toItemDto)
+                .collect(Collectors.groupingBy(ItemDto::getRequestId));
+    }
+}
@@ -5,6 +5,7 @@ import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
 
 import java.util.List;
+import java.util.stream.Stream;
 
 public interface RequestService {
 
@@ -12,7 +13,12 @@ public interface RequestService {
 
     RequestWithProposalsDto getRequest(Long userId, Long requestId);
 
-    List<RequestWithProposalsDto> getRequests(Long userId);
+    List<RequestWithProposalsDto> getRequests(Long userId, Pageable pageable);
+
+    /**
+     * All requests of the user, newest first, read lazily in fixed-size chunks as the stream is consumed.
+     */
+    Stream<RequestWithProposalsDto> streamRequests(Long userId);
 
     List<RequestWithProposalsDto> getPartOfRequests(Long userId, Pageable pageable);
 }
\ No newline at end of file
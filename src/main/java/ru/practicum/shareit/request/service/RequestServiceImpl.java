@@ -2,28 +2,37 @@ package ru.practicum.shareit.request.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
-import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestMapper;
 import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
+import ru.practicum.shareit.request.feed.RequestFeed;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @Slf4j
 @RequiredArgsConstructor
 public class RequestServiceImpl implements RequestService {
 
+    private static final int STREAM_CHUNK_SIZE = 100;
+
     private final RequestRepository requestRepository;
 
     private final UserRepository userRepository;
@@ -32,61 +41,91 @@ public class RequestServiceImpl implements RequestService {
 
     private final UserService userService;
 
-    private final ItemService itemService;
+    private final ProposalService proposalService;
+
+    private final UserExistenceChecker userExistenceChecker;
+
+    private final RequestFeed requestFeed;
 
     @Override
     public RequestDto save(Long userId, RequestDto requestDto) {
-        checkUserExists(userId);
+        userExistenceChecker.checkUserExists(userId);
         Request request = requestMapper.toRequest(requestDto);
         request.setRequester(userService.getUser(userId));
         request.setCreated(LocalDateTime.now());
         Request saveRequest = requestRepository.save(request);
+        RequestWithProposalsDto feedEntry = requestMapper.toRequestWithProposalDto(saveRequest);
+        feedEntry.setItems(List.of());
+        requestFeed.onRequestSaved(feedEntry);
         return requestMapper.toDto(saveRequest);
     }
 
     @Override
     public RequestWithProposalsDto getRequest(Long userId, Long requestId) {
-        checkUserExists(userId);
+        userExistenceChecker.checkUserExists(userId);
         checkRequestExists(requestId);
         Request request = requestRepository.findById(requestId).get();
-        RequestWithProposalsDto requestWithProposalsDto = requestMapper.toRequestWithProposalDto(request);
-        requestWithProposalsDto.setItems(itemService.getItemsDtoByRequestId(request.getId()));
-        return requestWithProposalsDto;
+        return toRequestsWithItems(List.of(request)).get(0);
     }
 
     @Override
-    public List<RequestWithProposalsDto> getRequests(Long userId) {
-        checkUserExists(userId);
-        List<RequestWithProposalsDto> requests = requestRepository.getAllByRequesterIdOrderByCreatedDesc(userId)
-                .stream()
-                .map(requestMapper::toRequestWithProposalDto)
-                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+    public List<RequestWithProposalsDto> getRequests(Long userId, Pageable pageable) {
+        userExistenceChecker.checkUserExists(userId);
+        return toRequestsWithItems(requestRepository
+                .getAllByRequesterIdOrderByCreatedDescIdDesc(userId, pageable)
+                .getContent());
+    }
 
-        requests.forEach(request -> request.setItems(itemService.getItemsDtoByRequestId(request.getId())));
-        return requests.stream()
-                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+    @Override
+    public Stream<RequestWithProposalsDto> streamRequests(Long userId) {
+        userExistenceChecker.checkUserExists(userId);
+        Slice<Request> first = requestRepository
+                .getAllByRequesterIdOrderByCreatedDescIdDesc(userId, PageRequest.of(0, STREAM_CHUNK_SIZE));
+        return Stream.iterate(first, Objects::nonNull,
+                        chunk -> chunk.hasNext() ? findRequestsAfter(userId, chunk.getContent()) : null)
+                .flatMap(chunk -> toRequestsWithItems(chunk.getContent()).stream());
     }
 
     @Override
     public List<RequestWithProposalsDto> getPartOfRequests(Long userId, Pageable pageable) {
-        checkUserExists(userId);
+        userExistenceChecker.checkUserExists(userId);
+        if (!requestFeed.isLoaded()) {
+            loadFeed();
+        }
+        return requestFeed.findCreatedByOthers(userId, pageable.getOffset(), pageable.getPageSize())
+                .orElseGet(() -> toRequestsWithItems(requestRepository
+                        .getAllCreatedByOtherOrderByCreatedDesc(userId, pageable)
+                        .getContent()));
+    }
 
-        List<RequestWithProposalsDto> requests = requestRepository
-                .getAllCreatedByOtherOrderByCreatedDesc(userId, pageable)
-                .getContent()
-                .stream()
-                .map(requestMapper::toRequestWithProposalDto)
-                .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
-        requests.forEach(rQ -> rQ.setItems(itemService.getItemsDtoByRequestId(rQ.getId())));
+    private void loadFeed() {
+        long version = requestFeed.getVersion();
+        Slice<Request> latest = requestRepository
+                .findAllByOrderByCreatedDescIdDesc(PageRequest.of(0, requestFeed.getCapacity()));
+        requestFeed.load(toRequestsWithItems(latest.getContent()), latest.hasNext(), version);
+    }
 
-        return requests.stream()
+    private Slice<Request> findRequestsAfter(Long userId, List<Request> chunk) {
+        Request last = chunk.get(chunk.size() - 1);
+        log.debug("Next chunk of requests for userId={} after request with id={}", userId, last.getId());
+        return requestRepository.findByRequesterIdAfter(userId, last.getCreated(), last.getId(),
+                PageRequest.of(0, STREAM_CHUNK_SIZE));
+    }
+
+    private List<RequestWithProposalsDto> toRequestsWithItems(List<Request> requests) {
+        List<RequestWithProposalsDto> requestsDto = requests.stream()
+                .map(requestMapper::toRequestWithProposalDto)
                 .collect(Collectors.collectingAndThen(Collectors.toList(), Collections::unmodifiableList));
+        attachItems(requestsDto);
+        return requestsDto;
     }
 
-    private void checkUserExists(Long id) {
-        if (!userRepository.existsById(id)) {
-            throw new ItemDoesNotExistException("User with id=" + id + " not exists.");
-        }
+    private void attachItems(List<RequestWithProposalsDto> requests) {
+        List<Long> requestIds = requests.stream()
+                .map(RequestWithProposalsDto::getId)
+                .collect(Collectors.toList());
+        Map<Long, List<ItemDto>> itemsByRequestId = proposalService.getItemsByRequestIds(requestIds);
+        requests.forEach(request -> request.setItems(itemsByRequestId.getOrDefault(request.getId(), List.of())));
     }
 
     private void checkRequestExists(Long id) {
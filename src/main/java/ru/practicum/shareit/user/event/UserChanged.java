@@ -0,0 +1,17 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+import ru.practicum.shareit.user.dto.UserDto;
+
+/**
+ * A user changed their name or email. Copies of the user kept by other modules subscribe to it.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserChanged {
+
+    private final UserDto user;
+}
@@ -0,0 +1,18 @@
+package ru.practicum.shareit.user.event;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.ToString;
+
+/**
+ * A user is being deleted. Published in the deleting transaction before the user's rows are removed, so
+ * synchronous listeners can still read what the database is about to cascade away; caches subscribe to it
+ * after commit.
+ */
+@Getter
+@ToString
+@RequiredArgsConstructor
+public class UserDeleted {
+
+    private final Long userId;
+}
@@ -0,0 +1,46 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import ru.practicum.shareit.user.dto.UserDto;
+
+import java.time.Duration;
+import java.util.function.Function;
+
+/**
+ * Bounded read-through cache of {@link UserDto} by user id. Entries are detached copies, so neither
+ * the cache nor its callers can see each other's changes; UserService evicts an entry when the user
+ * is updated or deleted. Hit/miss statistics are published as the "users" cache metrics.
+ */
+@Component
+public class UserDtoCache implements MeterBinder {
+
+    private final Cache<Long, UserDto> cache;
+
+    public UserDtoCache(@Value("${shareit.users.cache.maximum-size:10000}") long maximumSize,
+                        @Value("${shareit.users.cache.ttl-seconds:600}") long ttlSeconds) {
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+    }
+
+    public UserDto get(Long id, Function<Long, UserDto> loader) {
+        return cache.get(id, loader).toBuilder().build();
+    }
+
+    public void invalidate(Long id) {
+        cache.invalidate(id);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+}
@@ -0,0 +1,76 @@
+package ru.practicum.shareit.user.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import ru.practicum.shareit.exception.ItemDoesNotExistException;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Verifies that the caller from X-Sharer-User-Id exists. A verified id is remembered for the rest of the
+ * current HTTP request and, for a short time, in a shared cache of known user ids, so repeated checks
+ * do not reach the users table. Deleted users are forgotten explicitly.
+ */
+@Slf4j
+@Component
+public class UserExistenceChecker {
+
+    private static final String VERIFIED_USER_IDS = UserExistenceChecker.class.getName() + ".verifiedUserIds";
+
+    private final UserRepository userRepository;
+
+    private final Cache<Long, Boolean> knownUserIds;
+
+    public UserExistenceChecker(UserRepository userRepository,
+                                @Value("${shareit.users.known-ids.maximum-size:10000}") long maximumSize,
+                                @Value("${shareit.users.known-ids.ttl-seconds:30}") long ttlSeconds) {
+        this.userRepository = userRepository;
+        this.knownUserIds = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .build();
+    }
+
+    public void checkUserExists(Long id) {
+        Set<Long> verifiedInRequest = verifiedInRequest();
+        if (verifiedInRequest.contains(id)) {
+            return;
+        }
+        if (Objects.isNull(knownUserIds.getIfPresent(id))) {
+            if (!userRepository.existsById(id)) {
+                throw new ItemDoesNotExistException("User with id=" + id + " not exists.");
+            }
+            knownUserIds.put(id, Boolean.TRUE);
+            log.debug("User with id={} verified", id);
+        }
+        verifiedInRequest.add(id);
+    }
+
+    public void forget(Long id) {
+        knownUserIds.invalidate(id);
+        verifiedInRequest().remove(id);
+    }
+
+    @SuppressWarnings("unchecked")
+    private Set<Long> verifiedInRequest() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (Objects.isNull(attributes)) {
+            return new HashSet<>();
+        }
+        Set<Long> ids = (Set<Long>) attributes.getAttribute(VERIFIED_USER_IDS, RequestAttributes.SCOPE_REQUEST);
+        if (Objects.isNull(ids)) {
+            ids = new HashSet<>();
+            attributes.setAttribute(VERIFIED_USER_IDS, ids, RequestAttributes.SCOPE_REQUEST);
+        }
+        return ids;
+    }
+}
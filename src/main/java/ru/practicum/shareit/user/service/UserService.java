@@ -2,10 +2,14 @@ package ru.practicum.shareit.user.service;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.event.UserChanged;
+import ru.practicum.shareit.user.event.UserDeleted;
 import ru.practicum.shareit.user.model.User;
 import ru.practicum.shareit.user.storage.UserRepository;
 
@@ -22,6 +26,12 @@ public class UserService {
 
     private final UserMapper userMapper;
 
+    private final UserExistenceChecker userExistenceChecker;
+
+    private final UserDtoCache userDtoCache;
+
+    private final ApplicationEventPublisher eventPublisher;
+
     public UserDto create(UserDto user) {
         log.info("Create request for user {}", user);
         return userMapper.toDto(userRepository.save(userMapper.toUser(user)));
@@ -38,7 +48,10 @@ public class UserService {
             user.setName(String.valueOf(updates.get("name")));
         }
         userRepository.save(user);
-        return userMapper.toDto(user);
+        userDtoCache.invalidate(id);
+        UserDto updated = userMapper.toDto(user);
+        eventPublisher.publishEvent(new UserChanged(updated));
+        return updated;
     }
 
     public List<UserDto> getUsers() {
@@ -50,7 +63,7 @@ public class UserService {
     }
 
     public UserDto getUserDto(Long id) {
-        return userMapper.toDto(getUser(id));
+        return userDtoCache.get(id, key -> userMapper.toDto(getUser(key)));
     }
 
     public User getUser(Long id) {
@@ -59,11 +72,15 @@ public class UserService {
         return userRepository.findById(id).get();
     }
 
+    @Transactional
     public UserDto deleteUser(Long id) {
         log.info("Delete request - user id={} ", id);
         checkUserExistence(id);
         User deletedUser = userRepository.findById(id).get();
+        eventPublisher.publishEvent(new UserDeleted(id));
         userRepository.deleteById(id);
+        userExistenceChecker.forget(id);
+        userDtoCache.invalidate(id);
         log.info("User deleted: {} ", deletedUser);
         return userMapper.toDto(deletedUser);
     }
@@ -24,11 +24,14 @@ CREATE TABLE IF NOT EXISTS requests
 
 CREATE TABLE IF NOT EXISTS proposals
 (
-    id           bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    request_id   bigint NOT NULL,
-    requester_id bigint NOT NULL,
-    item_id      bigint NOT NULL
-
+    id               bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    request_id       bigint       NOT NULL,
+    requester_id     bigint       NOT NULL,
+    item_id          bigint       NOT NULL,
+    item_name        varchar(255) NOT NULL,
+    item_description varchar(255) NOT NULL,
+    item_available   boolean      NOT NULL,
+    owner_id         bigint       NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS items
@@ -38,17 +41,20 @@ CREATE TABLE IF NOT EXISTS items
     description  varchar(255) NOT NULL,
     is_available boolean      NOT NULL,
     owner_id     bigint,
-    request_id   bigint
+    request_id   bigint,
+    version      bigint DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS bookings
 (
-    id         bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
-    start_date timestamp without time zone NOT NULL,
-    end_date   timestamp without time zone NOT NULL,
-    item_id    bigint,
-    booker_id  bigint,
-    status     varchar(12)
+    id            bigint GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    start_date    timestamp without time zone NOT NULL,
+    end_date      timestamp without time zone NOT NULL,
+    item_id       bigint,
+    item_owner_id bigint,
+    booker_id     bigint,
+    status        varchar(12),
+    version       bigint DEFAULT 0 NOT NULL
 );
 
 CREATE TABLE IF NOT EXISTS comments
@@ -111,4 +117,48 @@ ALTER TABLE proposals
 
 ALTER TABLE proposals
     ADD CONSTRAINT fk_item_proposal_to_request FOREIGN KEY (request_id) REFERENCES requests (id)
-        ON DELETE CASCADE ON UPDATE CASCADE;
\ No newline at end of file
+        ON DELETE CASCADE ON UPDATE CASCADE;
+
+ALTER TABLE proposals
+    DROP CONSTRAINT IF EXISTS fk_item_proposal_to_items;
+
+ALTER TABLE proposals
+    ADD CONSTRAINT fk_item_proposal_to_items FOREIGN KEY (item_id) REFERENCES items (id)
+        ON DELETE CASCADE ON UPDATE CASCADE;
+
+ALTER TABLE proposals
+    DROP CONSTRAINT IF EXISTS fk_item_proposal_to_users;
+
+ALTER TABLE proposals
+    ADD CONSTRAINT fk_item_proposal_to_users FOREIGN KEY (owner_id) REFERENCES users (id)
+        ON DELETE CASCADE ON UPDATE CASCADE;
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_period ON bookings (item_id, start_date, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_start ON bookings (item_id, status, start_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_status_end ON bookings (item_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_item_booker_status_end ON bookings (item_id, booker_id, status, end_date);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_start ON bookings (booker_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_booker_status_start ON bookings (booker_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_start ON bookings (item_owner_id, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_bookings_owner_status_start ON bookings (item_owner_id, status, start_date DESC);
+
+CREATE INDEX IF NOT EXISTS idx_items_owner ON items (owner_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_items_request ON items (request_id, id);
+
+CREATE INDEX IF NOT EXISTS idx_comments_item_created ON comments (item_id, created_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_requester_created ON requests (requester_id, created_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_requests_created ON requests (created_date DESC, id DESC);
+
+CREATE INDEX IF NOT EXISTS idx_proposals_request_item ON proposals (request_id, item_id);
+
+CREATE UNIQUE INDEX IF NOT EXISTS idx_proposals_item ON proposals (item_id);
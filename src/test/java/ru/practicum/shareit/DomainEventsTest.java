@@ -0,0 +1,69 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.service.UserService;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Changes items and users through the services, each change in its own committed transaction instead of the
+ * rolled back test transaction, so the change events reach the search index and cache after commit the way
+ * they do in the application. The item is created and deleted again, which leaves the shared index as the
+ * other tests expect it.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql(scripts = {"classpath:./schema.sql", "classpath:./DataForTests.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class DomainEventsTest {
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void itemAndUserChanges_ReachSearch() {
+        TransactionTemplate transaction = new TransactionTemplate(transactionManager);
+        assertThat(search("перфоратор"), empty());
+        UserDto owner = userService.create(UserDto.builder().name("Олег").email("ol@rubytech.ru").build());
+        ItemDto item = transaction.execute(status -> itemService.createItem(owner.getId(), ItemDto.builder()
+                .name("перфоратор")
+                .description("с набором буров")
+                .available(true)
+                .build()));
+        assertThat(search("перфоратор"), equalTo(List.of(item.getId())));
+
+        transaction.execute(status -> itemService.updateItem(owner.getId(), item.getId(),
+                Map.of("name", "отбойный молоток")));
+        assertThat(search("перфоратор"), empty());
+        assertThat(search("отбойный"), equalTo(List.of(item.getId())));
+
+        userService.deleteUser(owner.getId());
+        assertThat(search("отбойный"), empty());
+    }
+
+    private List<Long> search(String text) {
+        return itemService.searchItem(1L, text, 0, 10)
+                .stream()
+                .map(ItemDto::getId)
+                .collect(Collectors.toList());
+    }
+}
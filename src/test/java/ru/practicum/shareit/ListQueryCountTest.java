@@ -0,0 +1,153 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.dto.BookingDto;
+import ru.practicum.shareit.booking.service.BookingService;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
+import ru.practicum.shareit.request.feed.RequestFeed;
+import ru.practicum.shareit.request.service.RequestService;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+import javax.persistence.EntityManager;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.containsStringIgnoringCase;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.everyItem;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+import static org.hamcrest.Matchers.notNullValue;
+
+/**
+ * Calls the list entry points of the services and counts the SQL they send: a full page, including the
+ * requester, item, owner and booker shown in the response, is read with one statement per table group and
+ * no COUNT. The user existence check is warmed up first, it is cached and not part of the listing. Changing an
+ * item reads the item together with its owner.
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.RecordingStatementInspector")
+@Sql(scripts = {"classpath:./schema.sql", "classpath:./DataForTests.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ListQueryCountTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private ItemService itemService;
+
+    @Autowired
+    private RequestService requestService;
+
+    @Autowired
+    private RequestFeed requestFeed;
+
+    @Autowired
+    private UserExistenceChecker userExistenceChecker;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @BeforeEach
+    void setUp() {
+        entityManager.clear();
+        requestFeed.clear();
+    }
+
+    @Test
+    void getBookingByState_OneStatement() {
+        startListing(2L);
+        List<BookingDto> bookings = bookingService.getBookingByState(2L, "ALL",
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertThat(bookings, hasSize(1));
+        assertThat(bookings.get(0).getItem().getOwner().getName(), equalTo("Сергей"));
+        assertStatements(1);
+    }
+
+    @Test
+    void getBookingByStateAndOwner_Past_OneStatement() {
+        startListing(1L);
+        List<BookingDto> bookings = bookingService.getBookingByStateAndOwner(1L, "PAST",
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertThat(bookings, hasSize(1));
+        assertThat(bookings.get(0).getBooker().getName(), notNullValue());
+        assertStatements(1);
+    }
+
+    @Test
+    void getBookingByStateAndOwner_Waiting_OneStatement() {
+        startListing(1L);
+        List<BookingDto> bookings = bookingService.getBookingByStateAndOwner(1L, "WAITING",
+                PageRequest.of(0, 1, Sort.by(Sort.Direction.DESC, "start")));
+
+        assertThat(bookings, hasSize(1));
+        assertThat(bookings.get(0).getItem().getName(), notNullValue());
+        assertStatements(1);
+    }
+
+    @Test
+    void getItems_OneItemStatementAndBookingLookups() {
+        startListing(1L);
+        List<ItemDto> items = itemService.getItems(1L, PageRequest.of(0, 2, Sort.by(Sort.Direction.ASC, "id")));
+
+        assertThat(items, hasSize(2));
+        assertThat(items.get(0).getOwner().getName(), notNullValue());
+        assertStatements(3);
+    }
+
+    @Test
+    void getRequests_OneRequestStatementAndProposals() {
+        startListing(6L);
+        List<RequestWithProposalsDto> requests = requestService.getRequests(6L, PageRequest.of(0, 1));
+
+        assertThat(requests, hasSize(1));
+        assertThat(requests.get(0).getRequester().getName(), notNullValue());
+        assertStatements(2);
+    }
+
+    @Test
+    void getPartOfRequests_FeedLoadedWithTwoStatements() {
+        startListing(1L);
+        List<RequestWithProposalsDto> requests = requestService.getPartOfRequests(1L, PageRequest.of(0, 1));
+        requestService.getPartOfRequests(1L, PageRequest.of(0, 1));
+
+        assertThat(requests, hasSize(1));
+        assertThat(requests.get(0).getRequester().getName(), notNullValue());
+        assertStatements(2);
+    }
+
+    @Test
+    void updateItem_ItemReadWithOwner() {
+        RecordingStatementInspector.clear();
+        ItemDto item = itemService.updateItem(1L, 7L, Map.of("description", "мужской вариант"));
+
+        assertThat(item.getOwner().getName(), equalTo("Dimetrios1"));
+        assertStatements(1);
+    }
+
+    private void startListing(long userId) {
+        userExistenceChecker.checkUserExists(userId);
+        RecordingStatementInspector.clear();
+    }
+
+    private void assertStatements(int count) {
+        List<String> statements = RecordingStatementInspector.statements();
+        assertThat(statements.toString(), statements, hasSize(count));
+        assertThat(statements, everyItem(not(containsStringIgnoringCase("count("))));
+    }
+}
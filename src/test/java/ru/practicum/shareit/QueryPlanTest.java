@@ -0,0 +1,224 @@
+package ru.practicum.shareit;
+
+import org.junit.jupiter.api.Named;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingSlot;
+import ru.practicum.shareit.comment.storage.CommentRepository;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.request.repository.ProposalRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+
+import javax.persistence.EntityManager;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.hasSize;
+import static org.hamcrest.Matchers.not;
+
+/**
+ * Calls each repository access path, captures the SQL Hibernate sends for it and checks that EXPLAIN shows
+ * no table scan. Not covered: ItemRepository.findByAvailableTrue, which reads all available items to build
+ * the in-process search index; the native search queries, which rely on PostgreSQL trigram indexes;
+ * UserRepository.findByEmail, which has no callers.
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE, properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+                + "ru.practicum.shareit.RecordingStatementInspector")
+@Sql(scripts = {"classpath:./schema.sql", "classpath:./DataForTests.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class QueryPlanTest {
+
+    private static final LocalDateTime DATE = LocalDateTime.of(2023, 8, 12, 9, 0, 0, 0);
+
+    private static final PageRequest PAGE = PageRequest.of(0, 10);
+
+    private static final String TABLE_SCAN = "tableScan";
+
+    private static final String INDEX_SORTED = "/* index sorted */";
+
+    private static final String FETCH_FIRST = "FETCH FIRST";
+
+    private static final Pattern TABLE_ACCESS = Pattern.compile("/\\* PUBLIC\\.([\\w.]+)(?:: ([^*]*))? \\*/");
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @Autowired
+    private CommentRepository commentRepository;
+
+    @Autowired
+    private RequestRepository requestRepository;
+
+    @Autowired
+    private ProposalRepository proposalRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @ParameterizedTest
+    @MethodSource("repositoryCalls")
+    void repositoryQueries_UseIndexes(Consumer<QueryPlanTest> call) {
+        List<String> plans = explain(call);
+
+        assertThat(plans, not(empty()));
+        for (String plan : plans) {
+            assertThat(plan, unsupportedAccesses(plan), empty());
+        }
+    }
+
+    @Test
+    void queryWithoutSupportingIndex_ReportedAsScan() {
+        String scan = jdbcTemplate.queryForObject("EXPLAIN select b.id from bookings b where b.booker_id <> ?",
+                String.class);
+        String indexWalk = jdbcTemplate.queryForObject("EXPLAIN select b.id from bookings b where b.end_date < ?",
+                String.class);
+
+        assertThat(scan, unsupportedAccesses(scan), hasSize(1));
+        assertThat(indexWalk, unsupportedAccesses(indexWalk), hasSize(1));
+    }
+
+    /**
+     * Table accesses of an H2 plan that read the whole table: table scans, and index accesses without a condition
+     * on the leading index column, which H2 reports as index use but which walk the whole index. A walk in index
+     * order that stops after a page (newest requests first) reads only that page and is accepted.
+     */
+    private List<String> unsupportedAccesses(String plan) {
+        boolean topN = plan.contains(INDEX_SORTED) && plan.contains(FETCH_FIRST);
+        List<String> unsupported = new ArrayList<>();
+        Matcher access = TABLE_ACCESS.matcher(plan);
+        while (access.find()) {
+            String index = access.group(1);
+            String conditions = Objects.requireNonNullElse(access.group(2), "");
+            if (index.endsWith(TABLE_SCAN) || !topN && !conditions.contains(leadingColumn(index))) {
+                unsupported.add(access.group());
+            }
+        }
+        return unsupported;
+    }
+
+    private String leadingColumn(String index) {
+        return jdbcTemplate.queryForObject("select column_name from information_schema.index_columns "
+                + "where index_name = ? and ordinal_position = 1", String.class, index);
+    }
+
+    private List<String> explain(Consumer<QueryPlanTest> call) {
+        entityManager.clear();
+        RecordingStatementInspector.clear();
+        call.accept(this);
+        return RecordingStatementInspector.statements()
+                .stream()
+                .map(sql -> jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class))
+                .collect(Collectors.toList());
+    }
+
+    private static Stream<Named<Consumer<QueryPlanTest>>> repositoryCalls() {
+        return Stream.of(
+                call("BookingRepository.findBookingById", t -> t.bookingRepository.findBookingById(1L)),
+                call("BookingRepository.findStatusViewById", t -> t.bookingRepository.findStatusViewById(1L)),
+                call("BookingRepository.updateStatus", t -> t.bookingRepository
+                        .updateStatus(1L, BookingStatus.WAITING, BookingStatus.APPROVED)),
+                call("BookingRepository.searchByBooker", t -> t.bookingRepository.searchByBooker(2L, PAGE)),
+                call("BookingRepository.searchByBookerAndStatus", t -> t.bookingRepository
+                        .searchByBookerAndStatus(2L, BookingStatus.WAITING, PAGE)),
+                call("BookingRepository.searchByBookerInPresentTime", t -> t.bookingRepository
+                        .searchByBookerInPresentTime(2L, DATE, PAGE)),
+                call("BookingRepository.searchByBookerInPastTime", t -> t.bookingRepository
+                        .searchByBookerInPastTime(2L, DATE, PAGE)),
+                call("BookingRepository.searchByBookerInFutureTime", t -> t.bookingRepository
+                        .searchByBookerInFutureTime(2L, DATE, PAGE)),
+                call("BookingRepository.searchByItemOwner", t -> t.bookingRepository.searchByItemOwner(1L, PAGE)),
+                call("BookingRepository.searchByItemOwnerAndStatus", t -> t.bookingRepository
+                        .searchByItemOwnerAndStatus(1L, BookingStatus.WAITING, PAGE)),
+                call("BookingRepository.searchByItemOwnerInPresentTime", t -> t.bookingRepository
+                        .searchByItemOwnerInPresentTime(1L, DATE, PAGE)),
+                call("BookingRepository.searchByItemOwnerInPastTime", t -> t.bookingRepository
+                        .searchByItemOwnerInPastTime(1L, DATE, PAGE)),
+                call("BookingRepository.searchBookingsByItemOwnerInFutureTime", t -> t.bookingRepository
+                        .searchBookingsByItemOwnerInFutureTime(1L, DATE, PAGE)),
+                call("BookingRepository.searchByBookerAfter", t -> t.bookingRepository
+                        .searchByBookerAfter(2L, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByBookerAndStatusAfter", t -> t.bookingRepository
+                        .searchByBookerAndStatusAfter(2L, BookingStatus.WAITING, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByBookerInPresentTimeAfter", t -> t.bookingRepository
+                        .searchByBookerInPresentTimeAfter(2L, DATE, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByBookerInPastTimeAfter", t -> t.bookingRepository
+                        .searchByBookerInPastTimeAfter(2L, DATE, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByBookerInFutureTimeAfter", t -> t.bookingRepository
+                        .searchByBookerInFutureTimeAfter(2L, DATE, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByItemOwnerAfter", t -> t.bookingRepository
+                        .searchByItemOwnerAfter(1L, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByItemOwnerAndStatusAfter", t -> t.bookingRepository
+                        .searchByItemOwnerAndStatusAfter(1L, BookingStatus.WAITING, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByItemOwnerInPresentTimeAfter", t -> t.bookingRepository
+                        .searchByItemOwnerInPresentTimeAfter(1L, DATE, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByItemOwnerInPastTimeAfter", t -> t.bookingRepository
+                        .searchByItemOwnerInPastTimeAfter(1L, DATE, DATE, 5L, PAGE)),
+                call("BookingRepository.searchByItemOwnerInFutureTimeAfter", t -> t.bookingRepository
+                        .searchByItemOwnerInFutureTimeAfter(1L, DATE, DATE, 5L, PAGE)),
+                call("BookingRepository.existsByItemIdAndStatusInAndStartBeforeAndEndAfter", t -> t.bookingRepository
+                        .existsByItemIdAndStatusInAndStartBeforeAndEndAfter(1L, BookingSlot.ACTIVE_STATUSES,
+                                DATE.plusDays(1), DATE)),
+                call("BookingRepository.existsByItemIdAndBookerIdAndStatusAndEndIsBefore", t -> t.bookingRepository
+                        .existsByItemIdAndBookerIdAndStatusAndEndIsBefore(2L, 1L, BookingStatus.APPROVED, DATE)),
+                call("BookingRepository.searchSlotsForItems", t -> t.bookingRepository
+                        .searchSlotsForItems(List.of(1L, 2L), BookingSlot.ACTIVE_STATUSES)),
+                call("BookingRepository.searchSlotsForItemBetween", t -> t.bookingRepository
+                        .searchSlotsForItemBetween(1L, BookingSlot.ACTIVE_STATUSES, DATE, DATE.plusDays(30))),
+                call("BookingRepository.searchLastBookingForItem", t -> t.bookingRepository
+                        .searchLastBookingForItem(1L, DATE, BookingStatus.APPROVED, PAGE)),
+                call("BookingRepository.searchNextBookingForItem", t -> t.bookingRepository
+                        .searchNextBookingForItem(1L, DATE, BookingStatus.APPROVED, PAGE)),
+                call("BookingRepository.searchLastBookingsForItems", t -> t.bookingRepository
+                        .searchLastBookingsForItems(List.of(1L, 2L), DATE, BookingStatus.APPROVED)),
+                call("BookingRepository.searchNextBookingsForItems", t -> t.bookingRepository
+                        .searchNextBookingsForItems(List.of(1L, 2L), DATE, BookingStatus.APPROVED)),
+                call("ItemRepository.findItemCardById", t -> t.itemRepository.findItemCardById(1L)),
+                call("ItemRepository.findByIdIn", t -> t.itemRepository.findByIdIn(List.of(1L, 2L))),
+                call("ItemRepository.findByOwnerId", t -> t.itemRepository.findByOwnerId(1L, PAGE)),
+                call("CommentRepository.findByItemIdOrderByCreatedDescIdDesc", t -> t.commentRepository
+                        .findByItemIdOrderByCreatedDescIdDesc(2L, PAGE)),
+                call("CommentRepository.findByItemIdAfter", t -> t.commentRepository
+                        .findByItemIdAfter(2L, DATE, 5L, PAGE)),
+                call("RequestRepository.getAllCreatedByOtherOrderByCreatedDesc", t -> t.requestRepository
+                        .getAllCreatedByOtherOrderByCreatedDesc(1L, PAGE)),
+                call("RequestRepository.findAllByOrderByCreatedDescIdDesc", t -> t.requestRepository
+                        .findAllByOrderByCreatedDescIdDesc(PAGE)),
+                call("RequestRepository.getAllByRequesterIdOrderByCreatedDescIdDesc", t -> t.requestRepository
+                        .getAllByRequesterIdOrderByCreatedDescIdDesc(6L, PAGE)),
+                call("RequestRepository.findByRequesterIdAfter", t -> t.requestRepository
+                        .findByRequesterIdAfter(6L, DATE, 5L, PAGE)),
+                call("ProposalRepository.findByRequestIdInOrderByItemId", t -> t.proposalRepository
+                        .findByRequestIdInOrderByItemId(List.of(1L, 2L))),
+                call("ProposalRepository.findByItemId", t -> t.proposalRepository.findByItemId(1L)));
+    }
+
+    private static Named<Consumer<QueryPlanTest>> call(String name, Consumer<QueryPlanTest> call) {
+        return Named.of(name, call);
+    }
+}
@@ -1,13 +1,29 @@
 package ru.practicum.shareit;
 
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.env.Environment;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.emptyArray;
+import static org.hamcrest.Matchers.equalTo;
 
 @SpringBootTest
 class ShareItTests {
 
+	@Autowired
+	private Environment environment;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void sharedPropertiesApplyWithoutProfile() {
+		assertThat(environment.getActiveProfiles(), emptyArray());
+		assertThat(environment.getProperty("management.endpoints.web.exposure.include"), equalTo("health,metrics"));
+		assertThat(environment.getProperty("shareit.search.cache.ttl-seconds"), equalTo("300"));
+	}
+
 }
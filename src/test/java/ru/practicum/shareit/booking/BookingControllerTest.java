@@ -6,6 +6,8 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
@@ -14,6 +16,7 @@ import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
@@ -24,11 +27,14 @@ import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -86,6 +92,48 @@ class BookingControllerTest {
                 .andExpect(jsonPath("$[0].id").value(equalTo(bookingDto.getId()), Long.class));
     }
 
+    @Test
+    void getItemsByStateAndOwner_CursorMode() throws Exception {
+        BookingDto bookingDto = createBookingDto();
+        Cursor cursor = new Cursor(dateTime, 50L);
+        when(bookingService.getBookingByStateAndOwner(anyLong(), any(), eq(cursor), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(bookingDto), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/bookings/owner")
+                        .accept(MediaType.ALL)
+                        .param("size", "1")
+                        .param("cursor", cursor.encode())
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id").value(equalTo(bookingDto.getId()), Long.class))
+                .andExpect(header().string("X-Next-Cursor",
+                        new Cursor(bookingDto.getStart(), bookingDto.getId()).encode()));
+    }
+
+    @Test
+    void getBookingByState_LastCursorPage() throws Exception {
+        when(bookingService.getBookingByState(anyLong(), any(), eq(null), anyInt()))
+                .thenReturn(new SliceImpl<>(List.of(createBookingDto()), PageRequest.of(0, 10), false));
+
+        mockMvc.perform(get("/bookings")
+                        .accept(MediaType.ALL)
+                        .param("cursor", "")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(header().doesNotExist("X-Next-Cursor"));
+    }
+
+    @Test
+    void getBookingByState_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/bookings")
+                        .accept(MediaType.ALL)
+                        .param("cursor", "not-a-cursor")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
     @Test
     void create_StandardBehavior() throws Exception {
         BookingDto bookingDto = createBookingDto();
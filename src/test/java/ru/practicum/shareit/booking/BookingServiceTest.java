@@ -4,37 +4,60 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.dto.BookingDto;
 import ru.practicum.shareit.booking.dto.BookingDtoWithId;
 import ru.practicum.shareit.booking.dto.BookingMapper;
+import ru.practicum.shareit.booking.event.BookingChanged;
+import ru.practicum.shareit.booking.lock.ItemLock;
+import ru.practicum.shareit.booking.lock.StripedItemLock;
 import ru.practicum.shareit.booking.model.Booking;
 import ru.practicum.shareit.booking.model.BookingStatus;
 import ru.practicum.shareit.booking.service.BookingService;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.storage.BookingStatusView;
+import ru.practicum.shareit.booking.storage.BookingView;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.exception.ConflictException;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
 import ru.practicum.shareit.item.model.Item;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Slf4j
@@ -62,18 +85,30 @@ class BookingServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private BookingTimeline bookingTimeline;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private BookingService bookingService = new BookingService(bookingRepository,
-            userRepository, itemRepository, bookingMapper, itemMapper, userMapper);
+            userRepository, itemRepository, bookingMapper, itemMapper, userMapper, null, bookingTimeline,
+            null, eventPublisher);
 
     @Test
     void save_StandardBehavior() {
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
         ReflectionTestUtils.setField(bookingService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(bookingService, "bookingMapper", bookingMapper);
         ReflectionTestUtils.setField(bookingService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(bookingService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(bookingService, "bookingTimeline", bookingTimeline);
+        ReflectionTestUtils.setField(bookingService, "itemLock", new StripedItemLock(16));
+        ReflectionTestUtils.setField(bookingService, "eventPublisher", eventPublisher);
 
         User user = createUser();
         UserDto userDto = createUserDto();
@@ -83,8 +118,6 @@ class BookingServiceTest {
         Booking booking = createBooking();
         BookingDto bookingDto = createBookingDto();
 
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
         when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
 
@@ -92,7 +125,7 @@ class BookingServiceTest {
         when(itemMapper.toDto(any())).thenReturn(itemDto);
         when(bookingMapper.toBooking(any())).thenReturn(booking);
         when(bookingMapper.toDto(any())).thenReturn(bookingDto);
-        when(bookingRepository.save(any())).thenReturn(booking);
+        when(bookingRepository.saveAndFlush(any())).thenReturn(booking);
 
         BookingDto expectedBookingDto = bookingService.save(bookingDtoWithId, user.getId());
 
@@ -100,17 +133,20 @@ class BookingServiceTest {
         assertThat(expectedBookingDto.getStart(), equalTo(bookingDtoWithId.getStart()));
         assertThat(expectedBookingDto.getEnd(), equalTo(bookingDtoWithId.getEnd()));
         assertThat(expectedBookingDto.getStatus().toString(), equalTo(bookingDtoWithId.getStatus()));
+        verify(eventPublisher).publishEvent(any(BookingChanged.class));
     }
 
     @Test
     void save_UserIdNotExist() {
         ReflectionTestUtils.setField(bookingService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
 
         Long userId = 100L;
         BookingDtoWithId bookingDtoWithId = createBookingDtoWithId();
 
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         ItemDoesNotExistException itemDoesNotExistException
                 = assertThrows(ItemDoesNotExistException.class, () -> bookingService.save(bookingDtoWithId, userId));
@@ -121,7 +157,10 @@ class BookingServiceTest {
     void save_ItemIdNotExist() {
         ReflectionTestUtils.setField(bookingService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(bookingService, "bookingMapper", bookingMapper);
+        ReflectionTestUtils.setField(bookingService, "itemLock", new StripedItemLock(16));
 
         Long userId = 100L;
         Long itemId = 100L;
@@ -129,8 +168,8 @@ class BookingServiceTest {
         BookingDtoWithId bookingDtoWithId = createBookingDtoWithId();
         bookingDtoWithId.setItemId(itemId);
 
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.existsById(anyLong())).thenReturn(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.empty());
         when(bookingMapper.toBooking(any())).thenReturn(booking);
 
         ItemDoesNotExistException itemDoesNotExistException
@@ -138,6 +177,123 @@ class BookingServiceTest {
         assertThat(itemDoesNotExistException.getMessage(), equalTo("Item with id=" + itemId + " not exists."));
     }
 
+    @Test
+    @SuppressWarnings("unchecked")
+    void save_ItemReadUnderLock() {
+        ItemLock itemLock = mock(ItemLock.class);
+        ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingMapper", bookingMapper);
+        ReflectionTestUtils.setField(bookingService, "itemLock", itemLock);
+
+        Item item = createItem();
+        item.setAvailable(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(createUser()));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(bookingMapper.toBooking(any())).thenReturn(createBooking());
+        when(itemLock.withLock(anyLong(), any())).thenAnswer(invocation -> ((Supplier<Object>) invocation
+                .getArgument(1)).get());
+
+        BadRequestException badRequestException = assertThrows(BadRequestException.class,
+                () -> bookingService.save(createBookingDtoWithId(), 1L));
+        assertThat(badRequestException.getMessage(), equalTo("Booking can't be made to unavailable item"));
+        InOrder inOrder = inOrder(itemLock, itemRepository);
+        inOrder.verify(itemLock).withLock(anyLong(), any());
+        inOrder.verify(itemRepository).findById(anyLong());
+    }
+
+    @Test
+    void save_OverlappingBooking() {
+        ReflectionTestUtils.setField(bookingService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(bookingService, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingMapper", bookingMapper);
+        ReflectionTestUtils.setField(bookingService, "bookingTimeline", bookingTimeline);
+        ReflectionTestUtils.setField(bookingService, "itemLock", new StripedItemLock(16));
+
+        User user = createUser();
+        Booking booking = createBooking();
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(createItem()));
+        when(bookingMapper.toBooking(any())).thenReturn(booking);
+        when(bookingTimeline.hasOverlap(anyLong(), eq(booking.getStart()), eq(booking.getEnd()))).thenReturn(true);
+
+        BadRequestException badRequestException = assertThrows(BadRequestException.class,
+                () -> bookingService.save(createBookingDtoWithId(), user.getId()));
+        assertThat(badRequestException.getMessage(),
+                equalTo("Booking can't be made to one item more than one time"));
+    }
+
+    @Test
+    void changeBookingStatus_LostRace() {
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "itemLock", new StripedItemLock(16));
+
+        when(bookingRepository.findStatusViewById(anyLong()))
+                .thenReturn(Optional.of(new BookingStatusView(33L, 1L, BookingStatus.WAITING, dateTime,
+                        dateTime.plusDays(1))));
+        when(bookingRepository.updateStatus(33L, BookingStatus.WAITING, BookingStatus.APPROVED)).thenReturn(0);
+
+        ConflictException conflictException
+                = assertThrows(ConflictException.class, () -> bookingService.changeBookingStatus(33L, true, 1L));
+        assertThat(conflictException.getMessage(), equalTo("Booking with id 33 has been changed concurrently"));
+    }
+
+    @Test
+    void changeBookingStatus_ApproveRejectedOverlapping() {
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingTimeline", bookingTimeline);
+        ReflectionTestUtils.setField(bookingService, "itemLock", new StripedItemLock(16));
+
+        when(bookingRepository.findStatusViewById(anyLong())).thenReturn(Optional.of(
+                new BookingStatusView(33L, 1L, BookingStatus.REJECTED, dateTime, dateTime.plusDays(1))));
+        when(bookingTimeline.hasOverlap(33L, dateTime, dateTime.plusDays(1))).thenReturn(true);
+
+        BadRequestException badRequestException
+                = assertThrows(BadRequestException.class, () -> bookingService.changeBookingStatus(33L, true, 1L));
+        assertThat(badRequestException.getMessage(), equalTo("Booking can't be made to one item more than one time"));
+        verify(bookingRepository, never()).updateStatus(anyLong(), any(), any());
+    }
+
+    @Test
+    void changeBookingStatus_NotOwner() {
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+
+        when(bookingRepository.findStatusViewById(anyLong()))
+                .thenReturn(Optional.of(new BookingStatusView(33L, 1L, BookingStatus.WAITING, dateTime,
+                        dateTime.plusDays(1))));
+
+        ItemDoesNotExistException itemDoesNotExistException = assertThrows(ItemDoesNotExistException.class,
+                () -> bookingService.changeBookingStatus(33L, true, 2L));
+        assertThat(itemDoesNotExistException.getMessage(),
+                equalTo("Booking status could be changed only by owner"));
+    }
+
+    @Test
+    void getBookingByStateAndOwner_AfterCursor() {
+        ReflectionTestUtils.setField(bookingService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
+        ReflectionTestUtils.setField(bookingService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(bookingService, "bookingMapper", new BookingMapper());
+
+        BookingView booking = createBookingView();
+        Cursor cursor = new Cursor(dateTime.plusDays(7), 40L);
+        when(userRepository.existsById(99L)).thenReturn(true);
+        when(bookingRepository.searchByItemOwnerAndStatusAfter(eq(99L), eq(BookingStatus.WAITING),
+                eq(cursor.getTimestamp()), eq(cursor.getId()), any()))
+                .thenReturn(new SliceImpl<>(List.of(booking), PageRequest.of(0, 1), true));
+
+        Slice<BookingDto> bookings = bookingService.getBookingByStateAndOwner(99L, "WAITING", cursor, 1);
+
+        assertThat(bookings.getContent(), hasSize(1));
+        assertThat(bookings.hasNext(), equalTo(true));
+        BookingDto bookingDto = bookings.getContent().get(0);
+        assertThat(bookingDto.getStart(), equalTo(booking.getStart()));
+        assertThat(bookingDto.getId(), equalTo(booking.getId()));
+        assertThat(bookingDto.getItem().getName(), equalTo(booking.getItemName()));
+        assertThat(bookingDto.getItem().getOwner().getId(), equalTo(booking.getOwnerId()));
+        assertThat(bookingDto.getBooker().getEmail(), equalTo(booking.getBookerEmail()));
+    }
+
     private Booking createBooking() {
         return Booking.builder()
                 .id(33L)
@@ -149,6 +305,13 @@ class BookingServiceTest {
                 .build();
     }
 
+    private BookingView createBookingView() {
+        return new BookingView(33L, dateTime.plusDays(5), dateTime.plusDays(10), BookingStatus.WAITING,
+                33L, "велотренажёр", "очень тяжёлый", true, 100L,
+                99L, "Tigran", "tigran@rubytech.ru",
+                33L, "Alex", "azvarich@rubytech.ru");
+    }
+
     private BookingDto createBookingDto() {
         return BookingDto.builder()
                 .id(33L)
@@ -0,0 +1,77 @@
+package ru.practicum.shareit.booking;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.Booking;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingSlot;
+import ru.practicum.shareit.booking.timeline.InMemoryBookingTimeline;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class InMemoryBookingTimelineTest {
+
+    private final LocalDateTime now = LocalDateTime.of(2030, 1, 10, 12, 0);
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    private InMemoryBookingTimeline bookingTimeline;
+
+    @BeforeEach
+    void setUp() {
+        bookingTimeline = new InMemoryBookingTimeline(bookingRepository, 100, 60);
+        when(bookingRepository.searchSlotsForItems(anyCollection(), any())).thenReturn(List.of(
+                new BookingSlot(1L, 10L, 5L, now.minusDays(5), now.minusDays(3), BookingStatus.APPROVED),
+                new BookingSlot(1L, 11L, 6L, now.minusDays(1), now.plusDays(1), BookingStatus.WAITING),
+                new BookingSlot(1L, 12L, 7L, now.plusDays(2), now.plusDays(4), BookingStatus.APPROVED)));
+    }
+
+    @Test
+    void hasOverlap_HalfOpenPeriods() {
+        assertThat(bookingTimeline.hasOverlap(1L, now.minusDays(3), now.minusDays(1)), is(false));
+        assertThat(bookingTimeline.hasOverlap(1L, now.minusDays(4), now.minusDays(2)), is(true));
+        assertThat(bookingTimeline.hasOverlap(1L, now, now.plusDays(3)), is(true));
+        assertThat(bookingTimeline.hasOverlap(1L, now.plusDays(4), now.plusDays(5)), is(false));
+        verify(bookingRepository, times(1)).searchSlotsForItems(anyCollection(), any());
+    }
+
+    @Test
+    void findLastAndNextBookings_OnlyApproved() {
+        assertThat(bookingTimeline.findLastBookings(List.of(1L), now).get(1L).getId(), equalTo(10L));
+        assertThat(bookingTimeline.findNextBookings(List.of(1L), now).get(1L).getId(), equalTo(12L));
+    }
+
+    @Test
+    void onBookingSaved_UpdatesLoadedTimeline() {
+        bookingTimeline.hasOverlap(1L, now, now.plusHours(1));
+
+        bookingTimeline.onBookingSaved(Booking.builder()
+                .id(11L)
+                .item(Item.builder().id(1L).build())
+                .booker(User.builder().id(6L).build())
+                .start(now.minusDays(1))
+                .end(now.plusDays(1))
+                .status(BookingStatus.APPROVED)
+                .build());
+
+        assertThat(bookingTimeline.findLastBookings(List.of(1L), now).get(1L).getId(), equalTo(11L));
+    }
+}
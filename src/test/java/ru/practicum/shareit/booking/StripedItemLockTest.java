@@ -0,0 +1,62 @@
+package ru.practicum.shareit.booking;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.booking.lock.StripedItemLock;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.is;
+
+class StripedItemLockTest {
+
+    @Test
+    void withLock_SameItemSerializedAndContentionCounted() throws Exception {
+        StripedItemLock itemLock = new StripedItemLock(16);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        itemLock.bindTo(registry);
+        CountDownLatch holding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger inside = new AtomicInteger();
+
+        CompletableFuture<Integer> first = CompletableFuture.supplyAsync(() -> itemLock.withLock(7L, () -> {
+            inside.incrementAndGet();
+            holding.countDown();
+            await(release);
+            return inside.getAndDecrement();
+        }));
+        holding.await(5, TimeUnit.SECONDS);
+        CompletableFuture<Integer> second = CompletableFuture.supplyAsync(() -> itemLock.withLock(7L,
+                () -> inside.incrementAndGet()));
+
+        while (registry.find("shareit.item.lock.contention").functionCounters().stream()
+                .mapToDouble(counter -> counter.count()).sum() < 1) {
+            Thread.sleep(10);
+        }
+        assertThat(second.isDone(), is(false));
+        release.countDown();
+
+        assertThat(first.get(5, TimeUnit.SECONDS), equalTo(1));
+        assertThat(second.get(5, TimeUnit.SECONDS), equalTo(1));
+    }
+
+    @Test
+    void withLock_ReturnsActionResult() {
+        StripedItemLock itemLock = new StripedItemLock(16);
+
+        assertThat(itemLock.withLock(1L, () -> "done"), equalTo("done"));
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.IndexedItemSearchEngine;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.contains;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class IndexedItemSearchEngineTest {
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    private IndexedItemSearchEngine searchEngine;
+
+    @BeforeEach
+    void setUp() {
+        searchEngine = new IndexedItemSearchEngine(itemRepository);
+        when(itemRepository.findByAvailableTrue(any())).thenReturn(new SliceImpl<>(List.of(
+                createItem(1L, "Дрель", "Аккумуляторная дрель"),
+                createItem(2L, "Отвёртка", "Для дрели не подходит"),
+                createItem(3L, "Пылесос", "Бытовой, моющий"))));
+    }
+
+    @Test
+    void search_NameMatchesRankFirst() {
+        Slice<Long> ids = searchEngine.search("дрел", Pageable.unpaged());
+
+        assertThat(ids.getContent(), contains(1L, 2L));
+    }
+
+    @Test
+    void search_WholePhraseShouldMatch() {
+        assertThat(searchEngine.search(" Бытовой, моющ ", Pageable.unpaged()).getContent(), contains(3L));
+        assertThat(searchEngine.search("моющий бытовой", Pageable.unpaged()).getContent(), empty());
+        assertThat(searchEngine.search("моющий пыле", Pageable.unpaged()).getContent(), empty());
+    }
+
+    @Test
+    void search_PunctuationOnlyChecksEveryItem() {
+        assertThat(searchEngine.search(",", Pageable.unpaged()).getContent(), contains(3L));
+    }
+
+    @Test
+    void search_Paged() {
+        Slice<Long> ids = searchEngine.search("дрел", PageRequest.of(0, 1));
+
+        assertThat(ids.getContent(), contains(1L));
+        assertThat(ids.hasNext(), equalTo(true));
+    }
+
+    @Test
+    void searchAfterId_ReturnsGreaterIdsInOrder() {
+        assertThat(searchEngine.searchAfterId("дрел", 1L, 10).getContent(), contains(2L));
+    }
+
+    @Test
+    void update_ReplacesIndexedTokens() {
+        Item previous = createItem(3L, "Пылесос", "Бытовой, моющий");
+        Item current = createItem(3L, "Робот-пылесос", "Сухая уборка");
+        searchEngine.search("пылесос", Pageable.unpaged());
+
+        searchEngine.update(previous, current);
+
+        assertThat(searchEngine.search("моющий", Pageable.unpaged()).getContent(), empty());
+        assertThat(searchEngine.search("робот", Pageable.unpaged()).getContent(), contains(3L));
+    }
+
+    @Test
+    void update_UnavailableItemRemoved() {
+        Item previous = createItem(1L, "Дрель", "Аккумуляторная дрель");
+        Item current = previous.toBuilder().available(false).build();
+        searchEngine.search("дрель", Pageable.unpaged());
+
+        searchEngine.update(previous, current);
+
+        assertThat(searchEngine.search("дрел", Pageable.unpaged()).getContent(), contains(2L));
+    }
+
+    @Test
+    void addAndRemove() {
+        Item item = createItem(4L, "Палатка", "Трёхместная");
+        searchEngine.search("палатка", Pageable.unpaged());
+
+        searchEngine.add(item);
+        assertThat(searchEngine.search("трёхм", Pageable.unpaged()).getContent(), contains(4L));
+
+        searchEngine.remove(item);
+        assertThat(searchEngine.search("трёхм", Pageable.unpaged()).getContent(), empty());
+    }
+
+    private Item createItem(Long id, String name, String description) {
+        return Item.builder()
+                .id(id)
+                .name(name)
+                .description(description)
+                .available(true)
+                .build();
+    }
+}
@@ -0,0 +1,150 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.booking.model.BookingStatus;
+import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingSlot;
+import ru.practicum.shareit.exception.BadRequestException;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
+import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ItemAvailabilityServiceTest {
+
+    private final LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+
+    private final LocalDateTime to = from.plusDays(10);
+
+    @Mock
+    private ItemRepository itemRepository;
+
+    @Mock
+    private BookingRepository bookingRepository;
+
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
+    @Test
+    void getAvailability_MergesBookingsIntoFreePeriods() {
+        ItemAvailabilityService service = createService();
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.searchSlotsForItemBetween(anyLong(), any(), any(), any())).thenReturn(List.of(
+                new BookingSlot(1L, 1L, 2L, from.minusDays(1), from.plusDays(1), BookingStatus.APPROVED),
+                new BookingSlot(1L, 2L, 2L, from.plusDays(3), from.plusDays(4), BookingStatus.WAITING),
+                new BookingSlot(1L, 3L, 2L, from.plusDays(4), from.plusDays(5), BookingStatus.APPROVED)));
+
+        ItemAvailabilityDto availability = service.getAvailability(1L, 1L, from, to);
+
+        assertThat(availability.getFree(), hasSize(2));
+        assertThat(availability.getFree().get(0).getStart(), equalTo(from.plusDays(1)));
+        assertThat(availability.getFree().get(0).getEnd(), equalTo(from.plusDays(3)));
+        assertThat(availability.getFree().get(1).getStart(), equalTo(from.plusDays(5)));
+        assertThat(availability.getFree().get(1).getEnd(), equalTo(to));
+    }
+
+    @Test
+    void getAvailability_CachedUntilInvalidated() {
+        ItemAvailabilityService service = createService();
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.searchSlotsForItemBetween(anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        service.getAvailability(1L, 1L, from, to);
+        service.getAvailability(1L, 1L, from, to);
+        service.invalidate(1L);
+        ItemAvailabilityDto availability = service.getAvailability(1L, 1L, from, to);
+
+        assertThat(availability.getFree(), hasSize(1));
+        verify(bookingRepository, times(2)).searchSlotsForItemBetween(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void invalidate_KeepsOtherItems() {
+        ItemAvailabilityService service = createService();
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.searchSlotsForItemBetween(anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        service.getAvailability(1L, 1L, from, to);
+        service.getAvailability(1L, 2L, from, to);
+        service.invalidate(1L);
+        service.getAvailability(1L, 1L, from, to);
+        service.getAvailability(1L, 2L, from, to);
+
+        verify(bookingRepository, times(2)).searchSlotsForItemBetween(eq(1L), any(), any(), any());
+        verify(bookingRepository, times(1)).searchSlotsForItemBetween(eq(2L), any(), any(), any());
+    }
+
+    @Test
+    void getAvailability_DefaultStartIsNow() {
+        ItemAvailabilityService service = createService();
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.searchSlotsForItemBetween(anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        LocalDateTime before = LocalDateTime.now();
+        ItemAvailabilityDto availability = service.getAvailability(1L, 1L, null, null);
+
+        assertThat(availability.getFree(), hasSize(1));
+        assertThat(availability.getFree().get(0).getStart(), equalTo(availability.getFrom()));
+        assertThat(availability.getFrom().isBefore(before), equalTo(false));
+    }
+
+    @Test
+    void getAvailability_SharesMinuteButKeepsRequestedPeriod() {
+        ItemAvailabilityService service = createService();
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.searchSlotsForItemBetween(anyLong(), any(), any(), any())).thenReturn(List.of());
+
+        service.getAvailability(1L, 1L, from.plusSeconds(10), to.plusSeconds(10));
+        ItemAvailabilityDto availability = service.getAvailability(1L, 1L, from.plusSeconds(20), to.plusSeconds(5));
+
+        assertThat(availability.getFree().get(0).getStart(), equalTo(from.plusSeconds(20)));
+        assertThat(availability.getFree().get(0).getEnd(), equalTo(to.plusSeconds(5)));
+        verify(bookingRepository, times(1)).searchSlotsForItemBetween(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void invalidate_DuringLoadNotKept() {
+        ItemAvailabilityService service = createService();
+        when(itemRepository.existsById(anyLong())).thenReturn(true);
+        when(bookingRepository.searchSlotsForItemBetween(anyLong(), any(), any(), any())).thenAnswer(invocation -> {
+            service.invalidate(1L);
+            return List.of();
+        });
+
+        service.getAvailability(1L, 1L, from, to);
+        service.getAvailability(1L, 1L, from, to);
+
+        verify(bookingRepository, times(2)).searchSlotsForItemBetween(anyLong(), any(), any(), any());
+    }
+
+    @Test
+    void getAvailability_WrongPeriod() {
+        ItemAvailabilityService service = createService();
+
+        BadRequestException badRequestException
+                = assertThrows(BadRequestException.class, () -> service.getAvailability(1L, 1L, to, from));
+        assertThat(badRequestException.getMessage(), equalTo("Availability period start should be less than end"));
+    }
+
+    private ItemAvailabilityService createService() {
+        return new ItemAvailabilityService(itemRepository, bookingRepository, userExistenceChecker, 100, 60);
+    }
+}
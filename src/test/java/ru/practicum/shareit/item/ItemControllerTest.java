@@ -6,15 +6,23 @@ import org.mockito.InjectMocks;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.item.controller.ItemController;
+import ru.practicum.shareit.item.dto.ItemAvailabilityDto;
 import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.dto.PeriodDto;
+import ru.practicum.shareit.item.service.ItemAvailabilityService;
 import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.pagination.Cursor;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -23,11 +31,13 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -39,6 +49,9 @@ class ItemControllerTest {
     @MockBean
     private ItemService itemService;
 
+    @MockBean
+    private ItemAvailabilityService itemAvailabilityService;
+
     @InjectMocks
     private ItemController itemController;
 
@@ -145,6 +158,70 @@ class ItemControllerTest {
                 .build();
     }
 
+    @Test
+    void getAvailability_StandardBehavior() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2030, 1, 1, 0, 0);
+        LocalDateTime to = from.plusDays(10);
+        ItemAvailabilityDto availability = ItemAvailabilityDto.builder()
+                .itemId(33L)
+                .from(from)
+                .to(to)
+                .free(List.of(new PeriodDto(from, from.plusDays(2)), new PeriodDto(from.plusDays(5), to)))
+                .build();
+        when(itemAvailabilityService.getAvailability(anyLong(), anyLong(), eq(from), eq(to))).thenReturn(availability);
+
+        mockMvc.perform(get("/items/{itemId}/availability", 33L)
+                        .characterEncoding(StandardCharsets.UTF_8)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("from", "2030-01-01T00:00:00")
+                        .param("to", "2030-01-11T00:00:00")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.itemId").value(equalTo(33L), Long.class))
+                .andExpect(jsonPath("$.free", hasSize(2)))
+                .andExpect(jsonPath("$.free[1].start", equalTo("2030-01-06T00:00:00")));
+    }
+
+    @Test
+    void getComments_NextCursorHeader() throws Exception {
+        CommentDto commentDto = CommentDto.builder()
+                .id(7L)
+                .text("удобный")
+                .authorName("Tigran")
+                .created(LocalDateTime.of(2023, 8, 9, 9, 0))
+                .build();
+        when(itemService.getComments(anyLong(), eq(33L), eq(null), eq(1)))
+                .thenReturn(new SliceImpl<>(List.of(commentDto), PageRequest.of(0, 1), true));
+
+        mockMvc.perform(get("/items/{itemId}/comments", 33L)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("size", "1")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].text", equalTo("удобный")))
+                .andExpect(header().string("X-Next-Cursor",
+                        new Cursor(commentDto.getCreated(), commentDto.getId()).encode()));
+    }
+
+    @Test
+    void getComments_InvalidCursor() throws Exception {
+        mockMvc.perform(get("/items/{itemId}/comments", 33L)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("cursor", "not-a-cursor")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
+    @Test
+    void getComments_SizeAboveLimit() throws Exception {
+        mockMvc.perform(get("/items/{itemId}/comments", 33L)
+                        .accept(MediaType.APPLICATION_JSON)
+                        .param("size", "101")
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(status().isBadRequest());
+    }
+
     private ItemDto createItemDto() {
         return ItemDto.builder()
                 .id(33L)
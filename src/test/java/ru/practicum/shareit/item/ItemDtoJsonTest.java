@@ -11,7 +11,7 @@ import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.user.dto.UserDto;
 
 import java.time.LocalDateTime;
-import java.util.Set;
+import java.util.List;
 
 import static org.assertj.core.api.AssertionsForInterfaceTypes.assertThat;
 
@@ -69,7 +69,7 @@ class ItemDtoJsonTest {
                 .requestId(99L)
                 .lastBooking(new ItemBookingDto(11L, 22L))
                 .nextBooking(new ItemBookingDto(44L, 55L))
-                .comments(Set.of(createCommentDto()))
+                .comments(List.of(createCommentDto()))
                 .build();
     }
 
@@ -7,14 +7,19 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.RepositoryBookingTimeline;
 import ru.practicum.shareit.comment.dto.CommentMapper;
 import ru.practicum.shareit.comment.storage.CommentRepository;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.search.IndexedItemSearchEngine;
+import ru.practicum.shareit.item.search.ItemSearchCache;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.storage.ItemRepository;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+import ru.practicum.shareit.user.service.UserDtoCache;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserRepository;
 
@@ -51,18 +56,22 @@ class ItemIntegrationTest {
 
     @Autowired
     private UserMapper userMapper;
-    private final UserService userService = new UserService(userRepository, userMapper);
+    private final UserService userService = new UserService(userRepository, userMapper, null, null, null);
     private final ItemService itemService = new ItemService(itemRepository, userRepository,
-            commentRepository, bookingRepository, commentMapper, itemMapper, userMapper);
+            commentRepository, bookingRepository, commentMapper, itemMapper, userMapper,
+            null, null, null, null, null, null);
 
     @Test
     void getItem_StandardBehavior() {
 
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
 
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
 
@@ -70,6 +79,9 @@ class ItemIntegrationTest {
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
 
         ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(itemService, "bookingTimeline", new RepositoryBookingTimeline(bookingRepository));
+        ReflectionTestUtils.setField(itemService, "itemSearchEngine", new IndexedItemSearchEngine(itemRepository));
+        ReflectionTestUtils.setField(itemService, "itemSearchCache", new ItemSearchCache(100, 60));
 
         UserDto userDto = userService.getUserDto(1L);
         ItemDto itemDto = itemService.getItem(1L, 1L);
@@ -83,9 +95,12 @@ class ItemIntegrationTest {
 
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
 
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
 
@@ -93,6 +108,9 @@ class ItemIntegrationTest {
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
 
         ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
+        ReflectionTestUtils.setField(itemService, "bookingTimeline", new RepositoryBookingTimeline(bookingRepository));
+        ReflectionTestUtils.setField(itemService, "itemSearchEngine", new IndexedItemSearchEngine(itemRepository));
+        ReflectionTestUtils.setField(itemService, "itemSearchCache", new ItemSearchCache(100, 60));
 
         List<ItemDto> itemsDto = itemService.searchItem(1L, "бытОВой", 0, 5);
 
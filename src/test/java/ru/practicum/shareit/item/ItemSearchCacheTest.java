@@ -0,0 +1,104 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+class ItemSearchCacheTest {
+
+    private final ItemSearchCache itemSearchCache = new ItemSearchCache(100, 60);
+
+    @Test
+    void search_SecondCallServedFromCache() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Slice<Long>> loader = () -> {
+            loads.incrementAndGet();
+            return new SliceImpl<>(List.of(1L));
+        };
+
+        itemSearchCache.search("Дрель", PageRequest.of(0, 10), loader);
+        itemSearchCache.search(" дрель ", PageRequest.of(0, 10), loader);
+        itemSearchCache.search("дрель", PageRequest.of(1, 10), loader);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void invalidate_EvictsOnlyAffectedKeywords() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Slice<Long>> loader = () -> {
+            loads.incrementAndGet();
+            return new SliceImpl<>(List.of(1L));
+        };
+        itemSearchCache.search("дрел", Pageable.unpaged(), loader);
+        itemSearchCache.search("пылесос", Pageable.unpaged(), loader);
+
+        itemSearchCache.invalidate(Item.builder().id(5L).name("Дрель").description("ударная").build());
+        itemSearchCache.search("дрел", Pageable.unpaged(), loader);
+        itemSearchCache.search("пылесос", Pageable.unpaged(), loader);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void invalidate_MatchesAnyQueryTokenAfterReload() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Slice<Long>> loader = () -> {
+            loads.incrementAndGet();
+            return new SliceImpl<>(List.of(1L));
+        };
+        Item item = Item.builder().id(5L).name("Дрель").description("ударная").build();
+        itemSearchCache.searchAfterId("новая дрель", 0, 10, loader);
+
+        itemSearchCache.invalidate(item);
+        itemSearchCache.searchAfterId("новая дрель", 0, 10, loader);
+        itemSearchCache.invalidate(item);
+        itemSearchCache.searchAfterId("новая дрель", 0, 10, loader);
+
+        assertThat(loads.get(), equalTo(3));
+    }
+
+    @Test
+    void search_LoadRacingInvalidationNotKept() {
+        AtomicInteger loads = new AtomicInteger();
+        Item item = Item.builder().id(5L).name("Пылесос").description("моющий").build();
+        Supplier<Slice<Long>> loader = () -> {
+            if (loads.incrementAndGet() == 1) {
+                itemSearchCache.invalidate(item);
+            }
+            return new SliceImpl<>(List.of(1L));
+        };
+
+        itemSearchCache.search("дрель", Pageable.unpaged(), loader);
+        itemSearchCache.search("дрель", Pageable.unpaged(), loader);
+        itemSearchCache.search("дрель", Pageable.unpaged(), loader);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+
+    @Test
+    void invalidate_EvictsSearchesWithoutTokens() {
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Slice<Long>> loader = () -> {
+            loads.incrementAndGet();
+            return new SliceImpl<>(List.of(1L));
+        };
+        itemSearchCache.search("-", Pageable.unpaged(), loader);
+
+        itemSearchCache.invalidate(Item.builder().id(5L).name("Пылесос").description("робот-пылесос").build());
+        itemSearchCache.search("-", Pageable.unpaged(), loader);
+
+        assertThat(loads.get(), equalTo(2));
+    }
+}
@@ -0,0 +1,39 @@
+package ru.practicum.shareit.item;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.annotation.Transactional;
+import ru.practicum.shareit.item.search.IndexedItemSearchEngine;
+import ru.practicum.shareit.item.search.PostgresItemSearchEngine;
+import ru.practicum.shareit.item.storage.ItemRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+
+/**
+ * Runs the same phrases through the in-process index and through the LIKE query PostgresItemSearchEngine
+ * sends, which H2 runs as well, and expects the same items from both.
+ */
+@Transactional
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.NONE)
+@Sql(scripts = {"classpath:./schema.sql", "classpath:./DataForTests.sql"},
+        executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
+class ItemSearchEnginesTest {
+
+    @Autowired
+    private ItemRepository itemRepository;
+
+    @ParameterizedTest
+    @ValueSource(strings = {"экран", "Экран для", "кинотеатра экран", "домашнего кинотеатра", "для дом",
+            "ЭКРАН ДЛЯ ДОМАШНЕГО", "бытовой", "100", " насос ", "вёрт", "-", "а", "нет такого"})
+    void searchAfterId_SameItemsAsPostgres(String text) {
+        IndexedItemSearchEngine indexed = new IndexedItemSearchEngine(itemRepository);
+        PostgresItemSearchEngine postgres = new PostgresItemSearchEngine(itemRepository);
+
+        assertThat(indexed.searchAfterId(text, 0, 100).getContent(),
+                equalTo(postgres.searchAfterId(text, 0, 100).getContent()));
+    }
+}
@@ -9,22 +9,37 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.booking.storage.BookingRepository;
+import ru.practicum.shareit.booking.timeline.BookingTimeline;
+import ru.practicum.shareit.comment.dto.CommentDto;
 import ru.practicum.shareit.comment.dto.CommentMapper;
+import ru.practicum.shareit.comment.model.Comment;
 import ru.practicum.shareit.comment.storage.CommentRepository;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
 import ru.practicum.shareit.exception.NotOwnerException;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.item.dto.ItemMapper;
+import ru.practicum.shareit.item.event.ItemChanged;
 import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.item.search.ItemSearchCache;
+import ru.practicum.shareit.item.search.ItemSearchEngine;
 import ru.practicum.shareit.item.service.ItemService;
 import ru.practicum.shareit.item.storage.ItemRepository;
+import ru.practicum.shareit.pagination.Cursor;
+import ru.practicum.shareit.request.service.ProposalService;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.storage.UserRepository;
 
+import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
@@ -33,6 +48,7 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @Slf4j
@@ -61,23 +77,45 @@ class ItemServiceTest {
     @Mock
     private ItemMapper itemMapper;
 
+    @Mock
+    private ItemSearchEngine itemSearchEngine;
+
+    @Mock
+    private ItemSearchCache itemSearchCache;
+
+    @Mock
+    private BookingTimeline bookingTimeline;
+
+    @Mock
+    private ProposalService proposalService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ItemService itemService = new ItemService(itemRepository, userRepository,
-            commentRepository, bookingRepository, commentMapper, itemMapper, userMapper);
+            commentRepository, bookingRepository, commentMapper, itemMapper, userMapper,
+            itemSearchEngine, itemSearchCache, null, bookingTimeline, proposalService, eventPublisher);
 
     @Test
     void createItem_StandardBehavior() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(itemService, "itemSearchEngine", itemSearchEngine);
+        ReflectionTestUtils.setField(itemService, "itemSearchCache", itemSearchCache);
+        ReflectionTestUtils.setField(itemService, "proposalService", proposalService);
+        ReflectionTestUtils.setField(itemService, "eventPublisher", eventPublisher);
 
         User owner = createOwner();
         Item item = createItem();
         ItemDto itemDto = createItemDto();
-        when(userRepository.existsById(anyLong())).thenReturn(true);
         when(userRepository.findById(anyLong())).thenReturn(Optional.of(owner));
         when(itemMapper.toItem(any())).thenReturn(item);
+        when(itemRepository.save(item)).thenReturn(item);
         when(itemMapper.toDto(any())).thenReturn(itemDto);
 
         ItemDto expectedItemDto = itemService.createItem(owner.getId(), itemDto);
@@ -86,15 +124,19 @@ class ItemServiceTest {
         assertThat(expectedItemDto.getName(), equalTo(itemDto.getName()));
         assertThat(expectedItemDto.getDescription(), equalTo(itemDto.getDescription()));
         assertThat(expectedItemDto.isAvailable(), equalTo(itemDto.isAvailable()));
+        verify(proposalService).onItemSaved(item);
+        verify(eventPublisher).publishEvent(any(ItemChanged.class));
     }
 
     @Test
     void createItem_WrongUser() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
 
         Long userId = 100L;
-        when(userRepository.existsById(anyLong())).thenReturn(false);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.empty());
 
         ItemDoesNotExistException itemDoesNotExistException
                 = assertThrows(ItemDoesNotExistException.class, () -> itemService.createItem(userId, createItemDto()));
@@ -105,13 +147,14 @@ class ItemServiceTest {
     void updateItem_ItemIdNotExist() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
 
         Long userId = 100L;
         Long itemId = 100L;
         Map<String, Object> updates = Map.of("name", "супервелотренажёр");
 
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.existsById(anyLong())).thenReturn(false);
+        when(itemRepository.findItemCardById(anyLong())).thenReturn(Optional.empty());
 
         ItemDoesNotExistException itemDoesNotExistException
                 = assertThrows(ItemDoesNotExistException.class, () -> itemService.updateItem(userId, itemId, updates));
@@ -122,6 +165,8 @@ class ItemServiceTest {
     void updateItem_ItemIdExists_NotOwner() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
 
         Long userId = 100L;
         Item item = createItem();
@@ -129,8 +174,7 @@ class ItemServiceTest {
         Map<String, Object> updates = Map.of("name", "супервелотренажёр");
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findItemCardById(anyLong())).thenReturn(Optional.of(item));
 
         NotOwnerException notOwnerException
                 = assertThrows(NotOwnerException.class, () -> itemService.updateItem(userId, itemId, updates));
@@ -143,10 +187,16 @@ class ItemServiceTest {
     void updateItem_ItemIdExist_ByOwner_NewName() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(itemService, "itemSearchEngine", itemSearchEngine);
+        ReflectionTestUtils.setField(itemService, "itemSearchCache", itemSearchCache);
+        ReflectionTestUtils.setField(itemService, "proposalService", proposalService);
+        ReflectionTestUtils.setField(itemService, "eventPublisher", eventPublisher);
 
         Map<String, Object> updates = Map.of("name", "супервелотренажёр");
 
@@ -154,11 +204,8 @@ class ItemServiceTest {
         Item item = createItem();
         ItemDto itemDto = createItemDto();
         itemDto.setName(String.valueOf(updates.get("name")));
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findItemCardById(anyLong())).thenReturn(Optional.of(item));
 
-        when(itemMapper.toItem(any())).thenReturn(item);
         when(itemMapper.toDto(any())).thenReturn(itemDto);
 
         ItemDto expectedItemDto = itemService.updateItem(owner.getId(), itemDto.getId(), updates);
@@ -173,10 +220,16 @@ class ItemServiceTest {
     void updateItem_ItemIdExist_ByOwner_NewDescription() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(itemService, "itemSearchEngine", itemSearchEngine);
+        ReflectionTestUtils.setField(itemService, "itemSearchCache", itemSearchCache);
+        ReflectionTestUtils.setField(itemService, "proposalService", proposalService);
+        ReflectionTestUtils.setField(itemService, "eventPublisher", eventPublisher);
 
         Map<String, Object> updates = Map.of("description", "10 скоростей");
 
@@ -184,12 +237,8 @@ class ItemServiceTest {
         Item item = createItem();
         ItemDto itemDto = createItemDto();
         itemDto.setName(String.valueOf(updates.get("description")));
-        when(userRepository.existsById(anyLong())).thenReturn(true);
-
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findItemCardById(anyLong())).thenReturn(Optional.of(item));
 
-        when(itemMapper.toItem(any())).thenReturn(item);
         when(itemMapper.toDto(any())).thenReturn(itemDto);
 
         ItemDto expectedItemDto = itemService.updateItem(owner.getId(), itemDto.getId(), updates);
@@ -204,10 +253,16 @@ class ItemServiceTest {
     void updateItem_ItemIdExist_ByOwner_NewAvailable() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(itemService, "itemSearchEngine", itemSearchEngine);
+        ReflectionTestUtils.setField(itemService, "itemSearchCache", itemSearchCache);
+        ReflectionTestUtils.setField(itemService, "proposalService", proposalService);
+        ReflectionTestUtils.setField(itemService, "eventPublisher", eventPublisher);
 
         Map<String, Object> updates = Map.of("available", false);
 
@@ -215,12 +270,8 @@ class ItemServiceTest {
         Item item = createItem();
         ItemDto itemDto = createItemDto();
         itemDto.setAvailable((boolean) updates.get("available"));
-        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.findItemCardById(anyLong())).thenReturn(Optional.of(item));
 
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
-
-        when(itemMapper.toItem(any())).thenReturn(item);
         when(itemMapper.toDto(any())).thenReturn(itemDto);
 
         ItemDto expectedItemDto = itemService.updateItem(owner.getId(), itemDto.getId(), updates);
@@ -235,10 +286,14 @@ class ItemServiceTest {
     void getItem_StandardBehavior() {
         ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
         ReflectionTestUtils.setField(itemService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(itemService, "bookingRepository", bookingRepository);
         ReflectionTestUtils.setField(itemService, "itemMapper", itemMapper);
         ReflectionTestUtils.setField(itemService, "userMapper", userMapper);
         ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(itemService, "commentRepository", commentRepository);
+        ReflectionTestUtils.setField(itemService, "bookingTimeline", bookingTimeline);
 
         User owner = createOwner();
         Item item = createItem();
@@ -246,9 +301,10 @@ class ItemServiceTest {
         Long itemId = itemDto.getId();
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.existsById(anyLong())).thenReturn(true);
-        when(itemRepository.findById(anyLong())).thenReturn(Optional.of(item));
+        when(itemRepository.findItemCardById(anyLong())).thenReturn(Optional.of(item));
         when(itemMapper.toDto(any())).thenReturn(itemDto);
+        when(commentRepository.findByItemIdOrderByCreatedDescIdDesc(itemId, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of()));
 
         ItemDto expectedItemDto = itemService.getItem(owner.getId(), itemId);
 
@@ -258,6 +314,40 @@ class ItemServiceTest {
         assertThat(expectedItemDto.isAvailable(), equalTo(itemDto.isAvailable()));
     }
 
+    @Test
+    void getComments_AfterCursor() {
+        ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
+        ReflectionTestUtils.setField(itemService, "commentMapper", commentMapper);
+        ReflectionTestUtils.setField(itemService, "commentRepository", commentRepository);
+
+        LocalDateTime created = LocalDateTime.of(2023, 8, 12, 9, 0);
+        Comment comment = Comment.builder().id(4L).text("отличный").created(created.minusDays(1)).build();
+        CommentDto commentDto = CommentDto.builder().id(4L).text("отличный").created(created.minusDays(1)).build();
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.existsById(33L)).thenReturn(true);
+        when(commentRepository.findByItemIdAfter(33L, created, 5L, PageRequest.of(0, 1)))
+                .thenReturn(new SliceImpl<>(List.of(comment), PageRequest.of(0, 1), true));
+        when(commentMapper.toDto(comment)).thenReturn(commentDto);
+
+        Slice<CommentDto> comments = itemService.getComments(1L, 33L, new Cursor(created, 5L), 1);
+
+        assertThat(comments.getContent(), equalTo(List.of(commentDto)));
+        assertThat(comments.hasNext(), equalTo(true));
+    }
+
+    @Test
+    void getComments_ItemNotExists() {
+        ReflectionTestUtils.setField(itemService, "itemRepository", itemRepository);
+        ReflectionTestUtils.setField(itemService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(itemRepository.existsById(anyLong())).thenReturn(false);
+
+        assertThrows(ItemDoesNotExistException.class, () -> itemService.getComments(1L, 33L, null, 10));
+    }
+
     private Item createItem() {
         return Item.builder()
                 .id(33L)
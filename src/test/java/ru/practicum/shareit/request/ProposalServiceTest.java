@@ -0,0 +1,156 @@
+package ru.practicum.shareit.request;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.item.model.Item;
+import ru.practicum.shareit.request.dto.ProposalMapper;
+import ru.practicum.shareit.request.model.Proposal;
+import ru.practicum.shareit.request.model.Request;
+import ru.practicum.shareit.request.repository.ProposalRepository;
+import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.ProposalService;
+import ru.practicum.shareit.user.model.User;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ProposalServiceTest {
+
+    private final LocalDateTime dateTime = LocalDateTime.of(2023, 8, 12, 9, 0, 0, 0);
+
+    @Mock
+    private ProposalRepository proposalRepository;
+
+    @Mock
+    private RequestRepository requestRepository;
+
+    private final ProposalService proposalService = new ProposalService(proposalRepository, requestRepository,
+            Mappers.getMapper(ProposalMapper.class));
+
+    @Test
+    void onItemSaved_NewProposal() {
+        setRepositories();
+        Item item = createItem();
+        Request request = createRequest();
+        when(proposalRepository.findByItemId(item.getId())).thenReturn(Optional.empty());
+        when(requestRepository.findById(request.getId())).thenReturn(Optional.of(request));
+
+        proposalService.onItemSaved(item);
+
+        ArgumentCaptor<Proposal> saved = ArgumentCaptor.forClass(Proposal.class);
+        verify(proposalRepository).save(saved.capture());
+        assertThat(saved.getValue().getItemId(), equalTo(item.getId()));
+        assertThat(saved.getValue().getItemName(), equalTo(item.getName()));
+        assertThat(saved.getValue().getRequest().getId(), equalTo(request.getId()));
+        assertThat(saved.getValue().getRequesterId(), equalTo(request.getRequester().getId()));
+        assertThat(saved.getValue().getOwner().getId(), equalTo(item.getOwner().getId()));
+    }
+
+    @Test
+    void onItemSaved_ExistingProposalUpdated() {
+        setRepositories();
+        Item item = createItem().toBuilder().name("палатка двухместная").available(false).build();
+        Proposal proposal = createProposal(createRequest());
+        when(proposalRepository.findByItemId(item.getId())).thenReturn(Optional.of(proposal));
+
+        proposalService.onItemSaved(item);
+
+        verify(proposalRepository).save(proposal);
+        verify(requestRepository, never()).findById(any());
+        assertThat(proposal.getItemName(), equalTo("палатка двухместная"));
+        assertThat(proposal.getItemAvailable(), equalTo(false));
+    }
+
+    @Test
+    void onItemSaved_NotProposed() {
+        setRepositories();
+
+        proposalService.onItemSaved(createItem().toBuilder().requestId(null).build());
+
+        verifyNoInteractions(proposalRepository, requestRepository);
+    }
+
+    @Test
+    void getItemsByRequestIds_GroupedByRequest() {
+        setRepositories();
+        Request request = createRequest();
+        when(proposalRepository.findByRequestIdInOrderByItemId(List.of(1L, 2L)))
+                .thenReturn(List.of(createProposal(request)));
+
+        Map<Long, List<ItemDto>> items = proposalService.getItemsByRequestIds(List.of(1L, 2L));
+
+        assertThat(items.keySet(), equalTo(Set.of(1L)));
+        assertThat(items.get(1L), hasSize(1));
+        ItemDto itemDto = items.get(1L).get(0);
+        assertThat(itemDto.getId(), equalTo(7L));
+        assertThat(itemDto.getName(), equalTo("палатка"));
+        assertThat(itemDto.getDescription(), equalTo("трёхместная"));
+        assertThat(itemDto.isAvailable(), equalTo(true));
+        assertThat(itemDto.getRequestId(), equalTo(1L));
+        assertThat(itemDto.getOwner().getName(), equalTo("Сергей"));
+    }
+
+    private void setRepositories() {
+        ReflectionTestUtils.setField(proposalService, "proposalRepository", proposalRepository);
+        ReflectionTestUtils.setField(proposalService, "requestRepository", requestRepository);
+    }
+
+    private Proposal createProposal(Request request) {
+        return Proposal.builder()
+                .id(3L)
+                .itemId(7L)
+                .itemName("палатка")
+                .itemDescription("трёхместная")
+                .itemAvailable(true)
+                .request(request)
+                .requesterId(request.getRequester().getId())
+                .owner(createOwner())
+                .build();
+    }
+
+    private Item createItem() {
+        return Item.builder()
+                .id(7L)
+                .name("палатка")
+                .description("трёхместная")
+                .available(true)
+                .requestId(1L)
+                .owner(createOwner())
+                .build();
+    }
+
+    private Request createRequest() {
+        return Request.builder()
+                .id(1L)
+                .description("нужна палатка")
+                .requester(User.builder().id(6L).name("Алексей").build())
+                .created(dateTime)
+                .build();
+    }
+
+    private User createOwner() {
+        return User.builder()
+                .id(3L)
+                .name("Сергей")
+                .build();
+    }
+}
@@ -9,6 +9,7 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.http.MediaType;
 import org.springframework.test.util.ReflectionTestUtils;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.controller.RequestController;
 import ru.practicum.shareit.request.dto.RequestDto;
@@ -19,6 +20,7 @@ import ru.practicum.shareit.user.dto.UserDto;
 import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.hamcrest.MatcherAssert.assertThat;
 import static org.hamcrest.Matchers.equalTo;
@@ -26,9 +28,12 @@ import static org.hamcrest.Matchers.hasSize;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
 @WebMvcTest(controllers = RequestController.class)
@@ -70,7 +75,7 @@ class RequestControllerTest {
         RequestWithProposalsDto requestWithProposalsDto = createRequestWithProposalsDto();
         List<RequestWithProposalsDto> requests = List.of(requestWithProposalsDto);
 
-        when(requestService.getRequests(anyLong())).thenReturn(requests);
+        when(requestService.getRequests(anyLong(), any())).thenReturn(requests);
         mockMvc.perform(get("/requests")
                         .characterEncoding(StandardCharsets.UTF_8)
                         .contentType(MediaType.APPLICATION_JSON)
@@ -83,6 +88,23 @@ class RequestControllerTest {
                 .andExpect(jsonPath("$[0].id").value(equalTo(requestWithProposalsDto.getId()), Long.class));
     }
 
+    @Test
+    void streamRequests_NewlineDelimitedJson() throws Exception {
+        RequestWithProposalsDto requestWithProposalsDto = createRequestWithProposalsDto();
+        when(requestService.streamRequests(1L)).thenReturn(Stream.of(requestWithProposalsDto, requestWithProposalsDto));
+
+        MvcResult result = mockMvc.perform(get("/requests")
+                        .param("stream", "true")
+                        .accept(MediaType.APPLICATION_NDJSON)
+                        .header("X-Sharer-User-Id", "1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String line = mapper.writeValueAsString(requestWithProposalsDto);
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(content().bytes((line + "\n" + line + "\n").getBytes(StandardCharsets.UTF_8)));
+    }
+
     @Test
     void getRequestsAll_ShouldReturnList() throws Exception {
         ReflectionTestUtils.setField(requestController, "requestService", requestService);
@@ -0,0 +1,152 @@
+package ru.practicum.shareit.request;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import org.junit.jupiter.api.Test;
+import ru.practicum.shareit.item.dto.ItemDto;
+import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
+import ru.practicum.shareit.request.feed.RequestFeed;
+import ru.practicum.shareit.user.dto.UserDto;
+import ru.practicum.shareit.user.event.UserChanged;
+import ru.practicum.shareit.user.event.UserDeleted;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
+import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
+
+class RequestFeedTest {
+
+    private final LocalDateTime dateTime = LocalDateTime.of(2023, 8, 12, 9, 0, 0, 0);
+
+    @Test
+    void findCreatedByOthers_NotLoaded() {
+        RequestFeed feed = new RequestFeed(3, 300);
+
+        assertThat(feed.findCreatedByOthers(1L, 0, 10), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void findCreatedByOthers_SkipsOwnRequestsNewestFirst() {
+        RequestFeed feed = new RequestFeed(5, 300);
+        feed.load(List.of(createRequest(3L, 2L), createRequest(2L, 1L), createRequest(1L, 2L)), false,
+                feed.getVersion());
+        feed.onRequestSaved(createRequest(4L, 3L));
+
+        assertThat(ids(feed.findCreatedByOthers(1L, 0, 10).orElseThrow()), equalTo(List.of(4L, 3L, 1L)));
+        assertThat(ids(feed.findCreatedByOthers(1L, 1, 1).orElseThrow()), equalTo(List.of(3L)));
+    }
+
+    @Test
+    void findCreatedByOthers_PastEvictedRequests() {
+        RequestFeed feed = new RequestFeed(2, 300);
+        feed.load(List.of(createRequest(2L, 2L), createRequest(1L, 2L)), false, feed.getVersion());
+        feed.onRequestSaved(createRequest(3L, 2L));
+
+        assertThat(ids(feed.findCreatedByOthers(1L, 0, 2).orElseThrow()), equalTo(List.of(3L, 2L)));
+        assertThat(feed.findCreatedByOthers(1L, 0, 3), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void load_SkippedAfterConcurrentChange() {
+        RequestFeed feed = new RequestFeed(5, 300);
+        long version = feed.getVersion();
+        feed.onRequestSaved(createRequest(2L, 2L));
+        feed.load(List.of(createRequest(1L, 2L)), false, version);
+
+        assertThat(feed.isLoaded(), equalTo(false));
+    }
+
+    @Test
+    void onItemSaved_ReplacesProposals() {
+        RequestFeed feed = new RequestFeed(5, 300);
+        feed.load(List.of(createRequest(1L, 2L)), false, feed.getVersion());
+        List<ItemDto> before = feed.findCreatedByOthers(1L, 0, 10).orElseThrow().get(0).getItems();
+
+        feed.onItemSaved(ItemDto.builder().id(7L).name("палатка").requestId(1L).build());
+        feed.onItemSaved(ItemDto.builder().id(7L).name("палатка двухместная").requestId(1L).build());
+        List<ItemDto> items = feed.findCreatedByOthers(1L, 0, 10).orElseThrow().get(0).getItems();
+
+        assertThat(before, empty());
+        assertThat(items, hasSize(1));
+        assertThat(items.get(0).getName(), equalTo("палатка двухместная"));
+
+        feed.onItemDeleted(items.get(0));
+        assertThat(feed.findCreatedByOthers(1L, 0, 10).orElseThrow().get(0).getItems(), empty());
+    }
+
+    @Test
+    void clear_UnloadsFeed() {
+        RequestFeed feed = new RequestFeed(5, 300);
+        feed.load(List.of(createRequest(1L, 2L)), false, feed.getVersion());
+        feed.clear();
+
+        assertThat(feed.findCreatedByOthers(1L, 0, 10), equalTo(Optional.empty()));
+    }
+
+    @Test
+    void onUserChanged_ReplacesRequesterAndOwner() {
+        RequestFeed feed = new RequestFeed(5, 300);
+        RequestWithProposalsDto request = createRequest(1L, 2L);
+        request.setItems(List.of(ItemDto.builder().id(7L).owner(UserDto.builder().id(3L).name("Иван").build())
+                .requestId(1L).build()));
+        feed.load(List.of(createRequest(2L, 3L), request), false, feed.getVersion());
+
+        feed.onUserChanged(new UserChanged(UserDto.builder().id(3L).name("Иван Петрович").build()));
+        List<RequestWithProposalsDto> requests = feed.findCreatedByOthers(1L, 0, 10).orElseThrow();
+
+        assertThat(ids(requests), equalTo(List.of(2L, 1L)));
+        assertThat(requests.get(0).getRequester().getName(), equalTo("Иван Петрович"));
+        assertThat(requests.get(1).getRequester().getName(), equalTo("Alex"));
+        assertThat(requests.get(1).getItems().get(0).getOwner().getName(), equalTo("Иван Петрович"));
+    }
+
+    @Test
+    void onUserDeleted_DropsOnlyThatUsersEntries() {
+        RequestFeed feed = new RequestFeed(5, 300);
+        RequestWithProposalsDto request = createRequest(1L, 2L);
+        request.setItems(List.of(ItemDto.builder().id(7L).owner(UserDto.builder().id(3L).build())
+                .requestId(1L).build()));
+        feed.load(List.of(createRequest(3L, 4L), createRequest(2L, 3L), request), false, feed.getVersion());
+
+        feed.onUserDeleted(new UserDeleted(3L));
+        List<RequestWithProposalsDto> requests = feed.findCreatedByOthers(1L, 0, 10).orElseThrow();
+
+        assertThat(ids(requests), equalTo(List.of(3L, 1L)));
+        assertThat(requests.get(1).getItems(), empty());
+    }
+
+    @Test
+    void findCreatedByOthers_ExpiresAfterTtl() {
+        AtomicLong nanos = new AtomicLong();
+        Ticker ticker = nanos::get;
+        RequestFeed feed = new RequestFeed(5, Duration.ofSeconds(300), ticker);
+        feed.load(List.of(createRequest(1L, 2L)), false, feed.getVersion());
+
+        nanos.addAndGet(Duration.ofSeconds(299).toNanos());
+        assertThat(feed.isLoaded(), equalTo(true));
+
+        nanos.addAndGet(Duration.ofSeconds(1).toNanos());
+        assertThat(feed.isLoaded(), equalTo(false));
+        assertThat(feed.findCreatedByOthers(1L, 0, 10), equalTo(Optional.empty()));
+    }
+
+    private List<Long> ids(List<RequestWithProposalsDto> requests) {
+        return requests.stream()
+                .map(RequestWithProposalsDto::getId)
+                .collect(Collectors.toList());
+    }
+
+    private RequestWithProposalsDto createRequest(Long id, Long requesterId) {
+        RequestWithProposalsDto request = new RequestWithProposalsDto(id, "нужен спальный мешок",
+                UserDto.builder().id(requesterId).name("Alex").build(), dateTime.plusHours(id));
+        request.setItems(List.of());
+        return request;
+    }
+}
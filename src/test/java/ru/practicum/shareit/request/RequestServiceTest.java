@@ -8,27 +8,42 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
-import ru.practicum.shareit.item.service.ItemService;
+import ru.practicum.shareit.item.dto.ItemDto;
 import ru.practicum.shareit.request.dto.RequestDto;
 import ru.practicum.shareit.request.dto.RequestMapper;
+import ru.practicum.shareit.request.dto.RequestWithProposalsDto;
+import ru.practicum.shareit.request.feed.RequestFeed;
 import ru.practicum.shareit.request.model.Request;
 import ru.practicum.shareit.request.repository.RequestRepository;
+import ru.practicum.shareit.request.service.ProposalService;
 import ru.practicum.shareit.request.service.RequestService;
 import ru.practicum.shareit.request.service.RequestServiceImpl;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserRepository;
 
 import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.stream.Collectors;
 
 import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.empty;
 import static org.hamcrest.Matchers.equalTo;
+import static org.hamcrest.Matchers.hasSize;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -47,18 +62,24 @@ class RequestServiceTest {
     private UserService userService;
 
     @Mock
-    private ItemService itemService;
+    private ProposalService proposalService;
 
     @Mock
     private RequestRepository requestRepository;
 
+    @Mock
+    private RequestFeed requestFeed;
+
     @InjectMocks
     private RequestService requestService =
-            new RequestServiceImpl(requestRepository, userRepository, requestMapper, userService, itemService);
+            new RequestServiceImpl(requestRepository, userRepository, requestMapper, userService, proposalService, null,
+                    requestFeed);
 
     @Test
     void save_WrongUserId() {
         ReflectionTestUtils.setField(requestService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(requestService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         Long userId = 100L;
         RequestDto requestDto = createRequestDto();
         when(userRepository.existsById(anyLong())).thenReturn(false);
@@ -70,9 +91,12 @@ class RequestServiceTest {
     @Test
     void save_StandardBehavior() {
         ReflectionTestUtils.setField(requestService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(requestService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
         ReflectionTestUtils.setField(requestService, "requestMapper", requestMapper);
         ReflectionTestUtils.setField(requestService, "requestRepository", requestRepository);
         ReflectionTestUtils.setField(requestService, "userService", userService);
+        ReflectionTestUtils.setField(requestService, "requestFeed", new RequestFeed(10, 300));
 
         User user = createUser();
         UserDto userDto = createUserDto();
@@ -81,6 +105,7 @@ class RequestServiceTest {
         when(userRepository.existsById(anyLong())).thenReturn(true);
         when(requestMapper.toRequest(any())).thenReturn(request);
         when(requestMapper.toDto(any())).thenReturn(requestDto);
+        when(requestMapper.toRequestWithProposalDto(any())).thenReturn(createRequestWithProposalsDto(request));
         when(requestRepository.save(any())).thenReturn(request);
 
         RequestDto expectedRequestDto = requestService.save(user.getId(), requestDto);
@@ -93,6 +118,99 @@ class RequestServiceTest {
         assertThat(expectedRequestDto.getRequester().getEmail(), equalTo(userDto.getEmail()));
     }
 
+    @Test
+    void getPartOfRequests_ItemsAttachedInOneCall() {
+        ReflectionTestUtils.setField(requestService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
+        ReflectionTestUtils.setField(requestService, "requestMapper", requestMapper);
+        ReflectionTestUtils.setField(requestService, "requestRepository", requestRepository);
+        ReflectionTestUtils.setField(requestService, "proposalService", proposalService);
+        ReflectionTestUtils.setField(requestService, "requestFeed", requestFeed);
+
+        Request request = createRequest();
+        Request otherRequest = request.toBuilder().id(34L).build();
+        ItemDto itemDto = ItemDto.builder().id(1L).name("аэрогриль").requestId(request.getId()).build();
+        PageRequest pageable = PageRequest.of(0, 10);
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(requestFeed.isLoaded()).thenReturn(true);
+        when(requestFeed.findCreatedByOthers(1L, 0, 10)).thenReturn(Optional.empty());
+        when(requestRepository.getAllCreatedByOtherOrderByCreatedDesc(1L, pageable))
+                .thenReturn(new SliceImpl<>(List.of(request, otherRequest), pageable, false));
+        when(requestMapper.toRequestWithProposalDto(any()))
+                .thenAnswer(invocation -> createRequestWithProposalsDto(invocation.getArgument(0)));
+        when(proposalService.getItemsByRequestIds(List.of(33L, 34L))).thenReturn(Map.of(33L, List.of(itemDto)));
+
+        List<RequestWithProposalsDto> requests = requestService.getPartOfRequests(1L, pageable);
+
+        assertThat(requests, hasSize(2));
+        assertThat(requests.get(0).getItems(), hasSize(1));
+        assertThat(requests.get(0).getItems().get(0).getId(), equalTo(itemDto.getId()));
+        assertThat(requests.get(1).getItems(), empty());
+        verify(proposalService).getItemsByRequestIds(any());
+    }
+
+    @Test
+    void getPartOfRequests_ServedFromFeed() {
+        ReflectionTestUtils.setField(requestService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
+        ReflectionTestUtils.setField(requestService, "requestMapper", requestMapper);
+        ReflectionTestUtils.setField(requestService, "requestRepository", requestRepository);
+        ReflectionTestUtils.setField(requestService, "proposalService", proposalService);
+        ReflectionTestUtils.setField(requestService, "requestFeed", new RequestFeed(10, 300));
+
+        Request own = createRequest();
+        Request other = own.toBuilder().id(34L).requester(User.builder().id(1L).name("Tigran").build()).build();
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(requestRepository.findAllByOrderByCreatedDescIdDesc(PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(other, own), PageRequest.of(0, 10), false));
+        when(requestMapper.toRequestWithProposalDto(any()))
+                .thenAnswer(invocation -> createRequestWithProposalsDto(invocation.getArgument(0)));
+        when(proposalService.getItemsByRequestIds(List.of(34L, 33L))).thenReturn(Map.of());
+
+        List<RequestWithProposalsDto> first = requestService.getPartOfRequests(33L, PageRequest.of(0, 10));
+        List<RequestWithProposalsDto> second = requestService.getPartOfRequests(33L, PageRequest.of(0, 10));
+
+        assertThat(first, hasSize(1));
+        assertThat(first.get(0).getId(), equalTo(34L));
+        assertThat(second, equalTo(first));
+        verify(requestRepository, never()).getAllCreatedByOtherOrderByCreatedDesc(anyLong(), any());
+    }
+
+    @Test
+    void streamRequests_ReadsChunksAfterLastRequest() {
+        ReflectionTestUtils.setField(requestService, "userExistenceChecker",
+                new UserExistenceChecker(userRepository, 100, 30));
+        ReflectionTestUtils.setField(requestService, "requestMapper", requestMapper);
+        ReflectionTestUtils.setField(requestService, "requestRepository", requestRepository);
+        ReflectionTestUtils.setField(requestService, "proposalService", proposalService);
+
+        Request newest = createRequest();
+        Request oldest = newest.toBuilder().id(32L).created(newest.getCreated().minusDays(1)).build();
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(requestRepository.getAllByRequesterIdOrderByCreatedDescIdDesc(eq(33L), any()))
+                .thenReturn(new SliceImpl<>(List.of(newest), PageRequest.of(0, 1), true));
+        when(requestRepository.findByRequesterIdAfter(eq(33L), eq(newest.getCreated()), eq(newest.getId()), any()))
+                .thenReturn(new SliceImpl<>(List.of(oldest), PageRequest.of(0, 1), false));
+        when(requestMapper.toRequestWithProposalDto(any()))
+                .thenAnswer(invocation -> createRequestWithProposalsDto(invocation.getArgument(0)));
+        when(proposalService.getItemsByRequestIds(any())).thenReturn(Map.of());
+
+        List<Long> streamedIds = requestService.streamRequests(33L)
+                .map(RequestWithProposalsDto::getId)
+                .collect(Collectors.toList());
+
+        assertThat(streamedIds, equalTo(List.of(33L, 32L)));
+    }
+
+    private RequestWithProposalsDto createRequestWithProposalsDto(Request request) {
+        UserDto requester = UserDto.builder()
+                .id(request.getRequester().getId())
+                .name(request.getRequester().getName())
+                .build();
+        return new RequestWithProposalsDto(request.getId(), request.getDescription(), requester,
+                request.getCreated());
+    }
+
     private Request createRequest() {
         return Request.builder()
                 .id(33L)
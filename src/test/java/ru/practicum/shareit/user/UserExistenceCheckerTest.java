@@ -0,0 +1,47 @@
+package ru.practicum.shareit.user;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import ru.practicum.shareit.exception.ItemDoesNotExistException;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
+import ru.practicum.shareit.user.storage.UserRepository;
+
+import static org.hamcrest.MatcherAssert.assertThat;
+import static org.hamcrest.Matchers.equalTo;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserExistenceCheckerTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Test
+    void checkUserExists_KnownUserNotQueriedAgain() {
+        UserExistenceChecker checker = new UserExistenceChecker(userRepository, 100, 30);
+        when(userRepository.existsById(1L)).thenReturn(true);
+
+        checker.checkUserExists(1L);
+        checker.checkUserExists(1L);
+
+        verify(userRepository, times(1)).existsById(1L);
+    }
+
+    @Test
+    void checkUserExists_ForgottenUserQueriedAgain() {
+        UserExistenceChecker checker = new UserExistenceChecker(userRepository, 100, 30);
+        when(userRepository.existsById(1L)).thenReturn(true, false);
+
+        checker.checkUserExists(1L);
+        checker.forget(1L);
+
+        ItemDoesNotExistException itemDoesNotExistException
+                = assertThrows(ItemDoesNotExistException.class, () -> checker.checkUserExists(1L));
+        assertThat(itemDoesNotExistException.getMessage(), equalTo("User with id=1 not exists."));
+    }
+}
@@ -3,16 +3,22 @@ package ru.practicum.shareit.user;
 import lombok.RequiredArgsConstructor;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.test.util.ReflectionTestUtils;
 import ru.practicum.shareit.exception.ItemDoesNotExistException;
 import ru.practicum.shareit.user.dto.UserDto;
 import ru.practicum.shareit.user.dto.UserMapper;
+import ru.practicum.shareit.user.event.UserChanged;
+import ru.practicum.shareit.user.event.UserDeleted;
 import ru.practicum.shareit.user.model.User;
+import ru.practicum.shareit.user.service.UserDtoCache;
+import ru.practicum.shareit.user.service.UserExistenceChecker;
 import ru.practicum.shareit.user.service.UserService;
 import ru.practicum.shareit.user.storage.UserRepository;
 
@@ -25,6 +31,9 @@ import static org.hamcrest.Matchers.equalTo;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
@@ -37,13 +46,21 @@ class UserServiceTest {
     @Mock
     private UserMapper userMapper;
 
+    @Mock
+    private UserExistenceChecker userExistenceChecker;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
-    private UserService userService = new UserService(userRepository, userMapper);
+    private UserService userService = new UserService(userRepository, userMapper, null, null, null);
 
     @Test
     void create_ShouldReturnSameEntity() {
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
 
         User user = createUser();
         UserDto userDto = createUserDto();
@@ -76,6 +93,8 @@ class UserServiceTest {
 
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
 
         User user = createUser();
         Optional<User> optionalUser = Optional.of(user);
@@ -97,6 +116,8 @@ class UserServiceTest {
 
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
 
         User user = createUser();
         List<User> expectedUsers = List.of(user);
@@ -140,12 +161,33 @@ class UserServiceTest {
         assertThat(itemDoesNotExistException.getMessage(), equalTo("User with id=" + userId + " not exists."));
     }
 
+    @Test
+    void delete_UserDeletedPublishedBeforeDelete() {
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userExistenceChecker", userExistenceChecker);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
+
+        User user = createUser();
+        when(userRepository.existsById(33L)).thenReturn(true);
+        when(userRepository.findById(33L)).thenReturn(Optional.of(user));
+
+        userService.deleteUser(33L);
+
+        InOrder inOrder = inOrder(eventPublisher, userRepository);
+        inOrder.verify(eventPublisher).publishEvent(any(UserDeleted.class));
+        inOrder.verify(userRepository).deleteById(33L);
+    }
+
     @Test
     void update_StandardBehavior_ChangeName() {
 
         Map<String, Object> updates = Map.of("name", "Peppy");
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
 
@@ -163,6 +205,7 @@ class UserServiceTest {
         assertThat(expectedUserDto.getId(), equalTo(updatedUserDto.getId()));
         assertThat(expectedUserDto.getName(), equalTo(updatedUserDto.getName()));
         assertThat(expectedUserDto.getEmail(), equalTo(updatedUserDto.getEmail()));
+        verify(eventPublisher).publishEvent(any(UserChanged.class));
     }
 
     @Test
@@ -170,6 +213,8 @@ class UserServiceTest {
         Map<String, Object> updates = Map.of("email", "peppyLS@mail.ru");
         ReflectionTestUtils.setField(userService, "userRepository", userRepository);
         ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
 
         when(userRepository.existsById(anyLong())).thenReturn(true);
 
@@ -189,6 +234,27 @@ class UserServiceTest {
         assertThat(expectedUserDto.getEmail(), equalTo(updatedUserDto.getEmail()));
     }
 
+    @Test
+    void getUserDto_CachedUntilUpdate() {
+        ReflectionTestUtils.setField(userService, "userRepository", userRepository);
+        ReflectionTestUtils.setField(userService, "userMapper", userMapper);
+        ReflectionTestUtils.setField(userService, "userDtoCache", new UserDtoCache(100, 60));
+        ReflectionTestUtils.setField(userService, "eventPublisher", eventPublisher);
+
+        User user = createUser();
+        UserDto userDto = createUserDto();
+        when(userRepository.existsById(anyLong())).thenReturn(true);
+        when(userRepository.findById(anyLong())).thenReturn(Optional.of(user));
+        when(userMapper.toDto(any())).thenReturn(userDto);
+
+        userService.getUserDto(33L);
+        userService.getUserDto(33L);
+        userService.update(33L, Map.of("name", "Peppy"));
+        userService.getUserDto(33L);
+
+        verify(userRepository, times(3)).findById(33L);
+    }
+
     private User createUser() {
         return User.builder()
                 .id(33L)
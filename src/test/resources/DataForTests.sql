@@ -36,6 +36,9 @@ VALUES ('2023-08-05 14:30:00.00', '2023-10-05 14:30:00.00', 1, 3, 'WAITING'),
        ('2023-09-05 14:30:00.00', '2023-11-05 14:30:00.00', 6, 1, 'WAITING'),
        ('2023-07-05 14:30:00.00', '2023-08-05 14:30:00.00', 4, 5, 'CANCELED');
 
+UPDATE bookings
+SET item_owner_id = (SELECT i.owner_id FROM items i WHERE i.id = bookings.item_id);
+
 INSERT INTO requests
     (description, requester_id, created_date)
 VALUES ('нужен спальный мешок', 6, '2023-10-25 14:30:00.00');